@@ -0,0 +1,30 @@
+package com.yoursay.backend.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String LEGISLATION_CACHE = "legislation";
+    public static final String USER_PROFILE_CACHE = "userProfiles";
+
+    // Profiles get their own short TTL on top of explicit eviction, since other instances may change them
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> userProfileCache(
+            @Value("${user.profile.cache.ttl-seconds:60}") long ttlSeconds,
+            @Value("${user.profile.cache.max-size:10000}") long maxSize) {
+        return cacheManager -> cacheManager.registerCustomCache(USER_PROFILE_CACHE, Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .recordStats()
+                .build());
+    }
+}
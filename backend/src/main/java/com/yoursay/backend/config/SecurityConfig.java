@@ -1,12 +1,15 @@
 package com.yoursay.backend.config;
 
+import com.yoursay.backend.ratelimit.RateLimitFilter;
 import com.yoursay.backend.security.JwtAuthenticationFilter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
@@ -14,6 +17,9 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -28,11 +34,18 @@ public class SecurityConfig {
                     "/api/users/send-verification",
                     "/api/auth/validate",
                     "/api/auth/refresh",
-                    "/api/legislation/daily-fetch"
+                    "/api/legislation/daily-fetch",
+                    "/error"
                 ).permitAll()
                 .anyRequest().authenticated()
+            )
+            // A missing or expired access token is a 401, which the client answers by refreshing it
+            .exceptionHandling(exceptions -> exceptions
+                .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED))
             );
         http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        // After authentication so signed-in clients are limited by email rather than IP
+        http.addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
         return http.build();
     }
 }
\ No newline at end of file
@@ -2,16 +2,20 @@ package com.yoursay.backend.controller;
 
 import com.yoursay.backend.domain.LoginRequest;
 import com.yoursay.backend.domain.LoginResponse;
-import com.yoursay.backend.domain.User;
-import com.yoursay.backend.repository.UserRepository;
+import com.yoursay.backend.domain.UserProfile;
 import com.yoursay.backend.security.JwtUtil;
+import com.yoursay.backend.security.RefreshTokenStore;
 import com.yoursay.backend.service.LoginService;
+import com.yoursay.backend.service.UserProfileService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api")
@@ -24,27 +28,38 @@ public class AuthController {
     private JwtUtil jwtUtil;
 
     @Autowired
-    private UserRepository userRepository;
+    private UserProfileService userProfileService;
+
+    @Autowired
+    private RefreshTokenStore refreshTokenStore;
 
     @PostMapping("/users/login")
-    public ResponseEntity<LoginResponse> login(@RequestBody LoginRequest loginRequest) {
-        LoginResponse response = loginService.checkPassword(loginRequest.getEmail(), loginRequest.getPassword());
-        if (response.isAccessGranted()) {
-            return ResponseEntity.ok(response);
-        } else {
-            return ResponseEntity.status(401).body(response);
+    public CompletableFuture<ResponseEntity<LoginResponse>> login(@RequestBody LoginRequest loginRequest) {
+        CompletableFuture<LoginResponse> check;
+        try {
+            check = loginService.checkPassword(loginRequest.getEmail(), loginRequest.getPassword());
+        } catch (RejectedExecutionException e) {
+            // Hashing pool is full: shed the login now rather than queue it behind the others
+            return CompletableFuture.completedFuture(ResponseEntity.status(503).header("Retry-After", "1").build());
         }
+        return check.thenApply(response -> {
+            if (response.isAccessGranted()) {
+                return ResponseEntity.ok(response);
+            } else {
+                return ResponseEntity.status(401).body(response);
+            }
+        });
     }
 
     @PostMapping("/auth/validate")
     public ResponseEntity<?> validateToken(@RequestHeader("Authorization") String authHeader) {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
-            if (jwtUtil.validateToken(token)) {
-                String email = jwtUtil.getEmailFromToken(token);
-                User user = userRepository.findByEmail(email);
-                if (user != null) {
-                    return ResponseEntity.ok(user);
+            String email = jwtUtil.getEmailFromToken(token);
+            if (email != null) {
+                UserProfile profile = userProfileService.getProfile(email);
+                if (profile != null) {
+                    return ResponseEntity.ok(profile);
                 }
             }
         }
@@ -55,13 +70,13 @@ public class AuthController {
     public ResponseEntity<?> refreshToken(@RequestHeader("Authorization") String authHeader) {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String refreshToken = authHeader.substring(7);
-            if (jwtUtil.validateToken(refreshToken)) {
-                String email = jwtUtil.getEmailFromToken(refreshToken);
-                String newAccessToken = jwtUtil.generateToken(email);
+            Optional<RefreshTokenStore.Rotation> rotation = refreshTokenStore.rotate(refreshToken);
+            if (rotation.isPresent()) {
+                String newAccessToken = jwtUtil.generateToken(rotation.get().email());
 
                 Map<String, String> tokens = new HashMap<>();
                 tokens.put("accessToken", newAccessToken);
-                tokens.put("refreshToken", refreshToken);
+                tokens.put("refreshToken", rotation.get().refreshToken());
 
                 return ResponseEntity.ok(tokens);
             }
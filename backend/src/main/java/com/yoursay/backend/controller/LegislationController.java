@@ -2,16 +2,25 @@ package com.yoursay.backend.controller;
 
 import com.yoursay.backend.domain.*;
 import com.yoursay.backend.service.*;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
+import java.security.Principal;
 import java.util.List;
-import java.util.Random;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api")
 public class LegislationController {
+    private static final int MAX_BATCH_BILLS = 200;
+
     private final SignUpService signUpService;
     private final PreferencesService preferencesService;
     private final LoginService loginService;
@@ -19,10 +28,12 @@ public class LegislationController {
     private final LegislationImportService legislationImportService;
     private final FetchLegislationService fetchLegislationService;
     private final OpinionVoteService opinionVoteService;
-    private final GemeniService gemeniService;
+    private final AiSummaryService aiSummaryService;
+    private final VoteTallyStream voteTallyStream;
+    private final VerificationCodeStore verificationCodeStore;
 
     @Autowired
-    public LegislationController(SignUpService signUpService, PreferencesService preferencesService, LoginService loginService, EmailSenderService emailService, LegislationImportService legislationImportService, FetchLegislationService fetchLegislationService, OpinionVoteService opinionVoteService, GemeniService gemeniService) {
+    public LegislationController(SignUpService signUpService, PreferencesService preferencesService, LoginService loginService, EmailSenderService emailService, LegislationImportService legislationImportService, FetchLegislationService fetchLegislationService, OpinionVoteService opinionVoteService, AiSummaryService aiSummaryService, VoteTallyStream voteTallyStream, VerificationCodeStore verificationCodeStore) {
         this.signUpService = signUpService;
         this.preferencesService = preferencesService;
         this.loginService = loginService;
@@ -30,32 +41,49 @@ public class LegislationController {
         this.legislationImportService = legislationImportService;
         this.fetchLegislationService = fetchLegislationService;
         this.opinionVoteService = opinionVoteService;
-        this.gemeniService = gemeniService;
+        this.aiSummaryService = aiSummaryService;
+        this.voteTallyStream = voteTallyStream;
+        this.verificationCodeStore = verificationCodeStore;
     }
 
     // 1. Daily legislation data fetch
     @GetMapping("/legislation/daily-fetch")
-    public ResponseEntity<String> fetchDailyLegislation() {
-        legislationImportService.fetchMasterList();
-        return ResponseEntity.ok("Legislation data fetched and updated successfully.");
+    public ResponseEntity<ImportReport> fetchDailyLegislation() {
+        ImportReport report = legislationImportService.fetchMasterList();
+        return ResponseEntity.ok(report);
     }
 
     // 2. Add new user
     @PostMapping("/users")
-    public ResponseEntity<String> verifyAndAddUser(@RequestBody UserRequest user) {
-        if (!signUpService.checkVerificationCode(user.getEmail(), user.getVerificationCode())) {
-            return ResponseEntity.status(403).body("Invalid verification code.");
+    public CompletableFuture<ResponseEntity<String>> verifyAndAddUser(@RequestBody UserRequest user, HttpServletRequest httpRequest) {
+        VerificationCodeStore.CheckResult check = verificationCodeStore.check(user.getEmail(), user.getVerificationCode(), httpRequest.getRemoteAddr());
+        if (check == VerificationCodeStore.CheckResult.RATE_LIMITED) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(429).body("Too many attempts, try again later."));
+        }
+        if (check != VerificationCodeStore.CheckResult.VALID) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(403).body("Invalid verification code."));
         }
-        signUpService.addUserFromRequest(user);
-        return ResponseEntity.ok("User added.");
+        CompletableFuture<Void> added;
+        try {
+            added = signUpService.addUserFromRequest(user);
+        } catch (RejectedExecutionException e) {
+            // Hashing pool is full: shed the sign-up now rather than queue it behind the others
+            return CompletableFuture.completedFuture(ResponseEntity.status(503).header("Retry-After", "1")
+                    .body("Too many sign-ups, try again shortly."));
+        }
+        return added.thenApply(done -> ResponseEntity.ok("User added."));
     }
 
     // 3. Send verification text
     @PostMapping("/users/send-verification")
-    public ResponseEntity<String> sendVerificationText(@RequestBody VerificationRequest request) {
-        Integer randomCode = new Random().nextInt(999999);
-        signUpService.addVerificationCode(request.getEmail(), randomCode);
-        emailService.emailVerificationCode(request.getEmail(), randomCode);
+    public ResponseEntity<String> sendVerificationText(@RequestBody VerificationRequest request, HttpServletRequest httpRequest) {
+        Optional<Integer> code = verificationCodeStore.issue(request.getEmail(), httpRequest.getRemoteAddr());
+        if (code.isEmpty()) {
+            return ResponseEntity.status(429).body("Too many verification requests, try again later.");
+        }
+        if (!emailService.emailVerificationCode(request.getEmail(), code.get())) {
+            return ResponseEntity.status(503).header("Retry-After", "5").body("Too many verification requests, try again shortly.");
+        }
         return ResponseEntity.ok("Verification text sent.");
     }
 
@@ -87,10 +115,46 @@ public class LegislationController {
         return ResponseEntity.ok(legislationList);
     }
 
+    // 8a. Paged legislation browsing, newest first
+    @GetMapping("/legislation/local/{zipcode}/page")
+    public ResponseEntity<LegislationPage> fetchLocalLegislationPage(@PathVariable String zipcode,
+                                                                     @RequestParam(required = false) String cursor,
+                                                                     @RequestParam(required = false) Integer size,
+                                                                     @RequestParam(required = false) String category) {
+        return legislationPage(BillLevel.LOCAL, zipcode, category, cursor, size);
+    }
+
+    @GetMapping("/legislation/state/{state}/page")
+    public ResponseEntity<LegislationPage> fetchStateLegislationPage(@PathVariable String state,
+                                                                     @RequestParam(required = false) String cursor,
+                                                                     @RequestParam(required = false) Integer size,
+                                                                     @RequestParam(required = false) String category) {
+        return legislationPage(BillLevel.STATE, state, category, cursor, size);
+    }
+
+    @GetMapping("/legislation/federal/page")
+    public ResponseEntity<LegislationPage> fetchFederalLegislationPage(@RequestParam(required = false) String cursor,
+                                                                       @RequestParam(required = false) Integer size,
+                                                                       @RequestParam(required = false) String category) {
+        return legislationPage(BillLevel.FEDERAL, "US", category, cursor, size);
+    }
+
+    private ResponseEntity<LegislationPage> legislationPage(BillLevel billLevel, String region, String category, String cursor, Integer size) {
+        try {
+            return ResponseEntity.ok(fetchLegislationService.fetchLegislationPage(billLevel, region, category, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     // 9. Fetch random legislation
     @GetMapping("/legislation/random/{zipcode}/{state}")
-    public ResponseEntity<List<Legislation>> fetchRandomLegislation(@PathVariable String zipcode, @PathVariable String state) {
-        List<Legislation> legislationList = fetchLegislationService.fetchRandomLegislation(zipcode, state);
+    public ResponseEntity<List<Legislation>> fetchRandomLegislation(@PathVariable String zipcode, @PathVariable String state,
+                                                                    @RequestParam(defaultValue = "2") int perLevel,
+                                                                    @RequestParam(required = false) Long rotation,
+                                                                    Principal principal) {
+        String email = principal != null ? principal.getName() : null;
+        List<Legislation> legislationList = fetchLegislationService.fetchRandomLegislation(zipcode, state, email, perLevel, rotation);
         return ResponseEntity.ok(legislationList);
     }
 
@@ -104,7 +168,12 @@ public class LegislationController {
     // 11. Add vote on bill
     @PostMapping("/legislation/vote")
     public ResponseEntity<Boolean> addVoteOnBill(@RequestBody VoteRequest request) {
-        boolean success = opinionVoteService.addVoteFromRequest(request);
+        boolean success;
+        try {
+            success = opinionVoteService.addVoteFromRequest(request);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(503).header("Retry-After", "1").body(false);
+        }
         return ResponseEntity.ok(success);
     }
 
@@ -122,6 +191,47 @@ public class LegislationController {
         return ResponseEntity.ok(votes);
     }
 
+    // 11a. Yes/no totals for one or more bills
+    @GetMapping("/legislation/vote/tally")
+    public ResponseEntity<List<VoteTally>> getVoteTallies(@RequestParam List<Integer> billIds) {
+        if (billIds.size() > MAX_BATCH_BILLS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(opinionVoteService.getTallies(billIds));
+    }
+
+    // 11c. Live totals for the given bills as Server-Sent Events
+    @GetMapping(value = "/legislation/vote/tally/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<List<VoteTally>>>> streamVoteTallies(@RequestParam List<Integer> billIds) {
+        if (billIds.size() > MAX_BATCH_BILLS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return voteTallyStream.subscribe(billIds)
+                .map(stream -> ResponseEntity.ok(stream.map(tallies -> tallies.isEmpty()
+                        ? ServerSentEvent.<List<VoteTally>>builder().comment("keepalive").build()
+                        : ServerSentEvent.builder(tallies).event("tally").build())))
+                .orElseGet(() -> ResponseEntity.status(503).build());
+    }
+
+    // A tally stream that lost the race for the last slot fails once Spring subscribes to it, after the handler
+    // above has returned
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Void> streamFull() {
+        return ResponseEntity.status(503).header("Retry-After", "1").build();
+    }
+
+    // 11b. Totals plus the caller's own vote and opinion for a page of bills
+    @GetMapping("/legislation/engagement")
+    public ResponseEntity<List<BillEngagement>> getEngagement(@RequestParam List<Integer> billIds, Principal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(401).build();
+        }
+        if (billIds.size() > MAX_BATCH_BILLS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(opinionVoteService.getEngagement(principal.getName(), billIds));
+    }
+
     // 12. Add opinion on bill
     @GetMapping("/legislation/opinion/{email}")
     public ResponseEntity<List<Opinion>> getOpinions(@PathVariable String email) {
@@ -129,11 +239,15 @@ public class LegislationController {
         return ResponseEntity.ok(opinions);
     }
 
-    // 13. Get AI summary on bill
+    // 13. Get AI summary on bill; only bill_id is used, the title and state come from the imported bill
     @PostMapping("/legislation/ai")
-    public ResponseEntity<String> getOpinions(@RequestBody AiRequest request) {
-        String response = gemeniService.fetchAiSummaryOfBill(request.getState(), request.getBill_id(), request.getTitle());
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<String>> getOpinions(@RequestBody AiRequest request) {
+        return aiSummaryService.summarizeForReader(request.getBill_id())
+                .map(pending -> pending.thenApply(summary -> summary.isFallback()
+                        ? ResponseEntity.ok().header("X-Summary-Fallback", "true").body(summary.getText())
+                        : ResponseEntity.ok(summary.getText())))
+                .orElseGet(() -> CompletableFuture.completedFuture(
+                        ResponseEntity.status(404).body("Bill not found.")));
     }
 
     // 14. Health check endpoint
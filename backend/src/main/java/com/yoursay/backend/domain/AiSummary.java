@@ -0,0 +1,23 @@
+package com.yoursay.backend.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "ai_summary")
+@Getter
+@Setter
+public class AiSummary {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String state;
+    private String bill_id;
+    private String summary;
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,17 @@
+package com.yoursay.backend.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Everything a feed card needs about one bill: vote totals, opinion count and the caller's own vote and opinion
+@Getter
+@AllArgsConstructor
+public class BillEngagement {
+    private Integer bill_id;
+    private long yes;
+    private long no;
+    private long opinionCount;
+    // null when the caller has not voted or written an opinion on this bill
+    private Boolean myVote;
+    private String myOpinion;
+}
@@ -0,0 +1,7 @@
+package com.yoursay.backend.domain;
+
+public enum BillLevel {
+    LOCAL,
+    STATE,
+    FEDERAL
+}
@@ -0,0 +1,52 @@
+package com.yoursay.backend.domain;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+@Getter
+@Setter
+public class ImportReport {
+    private long durationMs;
+    private int succeeded;
+    private int failed;
+    private List<StateResult> states = Collections.synchronizedList(new ArrayList<>());
+
+    public void recordSuccess(String state, int imported, int written) {
+        states.add(new StateResult(state, true, imported, written, null));
+    }
+
+    public void recordFailure(String state, Throwable error) {
+        states.add(new StateResult(state, false, 0, 0, error.getMessage()));
+    }
+
+    public void finish(long durationMs) {
+        this.durationMs = durationMs;
+        synchronized (states) {
+            states.sort(Comparator.comparing(StateResult::getState));
+            succeeded = (int) states.stream().filter(StateResult::isSuccess).count();
+        }
+        failed = states.size() - succeeded;
+    }
+
+    @Getter
+    public static class StateResult {
+        private final String state;
+        private final boolean success;
+        private final int imported;
+        private final int written;
+        private final String error;
+
+        public StateResult(String state, boolean success, int imported, int written, String error) {
+            this.state = state;
+            this.success = success;
+            this.imported = imported;
+            this.written = written;
+            this.error = error;
+        }
+    }
+}
@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.time.LocalDate;
+
 @Entity
 @Table(name = "legislation")
 @Getter
@@ -17,10 +19,12 @@ public class Legislation {
     private Integer bill_id;
     private String title;
     private String description;
-    private String billLevel;
+    @Enumerated(EnumType.STRING)
+    private BillLevel billLevel;
     private String state;
     private String zipcode;
     private String city;
-    private String billDate;
+    private LocalDate billDate;
     private String category;
+    private String changeHash;
 }
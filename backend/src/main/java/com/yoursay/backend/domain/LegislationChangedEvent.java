@@ -0,0 +1,19 @@
+package com.yoursay.backend.domain;
+
+import lombok.Getter;
+
+import java.util.List;
+
+// Published once a batch of legislation rows for one feed (a state, the federal list or a zipcode) is committed.
+@Getter
+public class LegislationChangedEvent {
+    private final BillLevel billLevel;
+    private final String region;
+    private final List<Integer> changedBillIds;
+
+    public LegislationChangedEvent(BillLevel billLevel, String region, List<Integer> changedBillIds) {
+        this.billLevel = billLevel;
+        this.region = region;
+        this.changedBillIds = changedBillIds;
+    }
+}
@@ -0,0 +1,14 @@
+package com.yoursay.backend.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class LegislationPage {
+    private List<LegislationSummary> items;
+    // Opaque cursor for the next page, null on the last page
+    private String nextCursor;
+}
@@ -0,0 +1,21 @@
+package com.yoursay.backend.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+// List view of a bill without the description text
+@Getter
+@AllArgsConstructor
+public class LegislationSummary {
+    private Long id;
+    private Integer bill_id;
+    private String title;
+    private BillLevel billLevel;
+    private String state;
+    private String zipcode;
+    private String city;
+    private LocalDate billDate;
+    private String category;
+}
@@ -0,0 +1,25 @@
+package com.yoursay.backend.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "mail_dead_letter")
+@Getter
+@Setter
+public class MailDeadLetter {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String recipient;
+    private String subject;
+    private String template;
+    private int attempts;
+    private String lastError;
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
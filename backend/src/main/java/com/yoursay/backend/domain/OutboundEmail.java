@@ -0,0 +1,14 @@
+package com.yoursay.backend.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class OutboundEmail {
+    private String to;
+    private String subject;
+    // Template the body was rendered from; dead letters keep this rather than the body
+    private String template;
+    private String html;
+}
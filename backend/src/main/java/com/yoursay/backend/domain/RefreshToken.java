@@ -0,0 +1,47 @@
+package com.yoursay.backend.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "refresh_token")
+@Getter
+@Setter
+public class RefreshToken implements Persistable<String> {
+    // SHA-256 of the token; the token itself is never stored
+    @Id
+    private String tokenHash;
+
+    private String familyId;
+    private String email;
+    private Instant expiresAt;
+    private Instant rotatedAt;
+    private boolean revoked;
+
+    // The id is assigned, so without this save() would merge and SELECT the row first
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean persisted;
+
+    @Override
+    public String getId() {
+        return tokenHash;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+}
@@ -0,0 +1,12 @@
+package com.yoursay.backend.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class SummaryResult {
+    private String text;
+    // true when the model did not answer in time and text is the bill's own (truncated) description
+    private boolean fallback;
+}
@@ -0,0 +1,14 @@
+package com.yoursay.backend.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// The profile fields the client needs after login; never carries the password
+@Getter
+@AllArgsConstructor
+public class UserProfile {
+    private String email;
+    private String zipcode;
+    private String state;
+    private String preferences;
+}
@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.time.Instant;
+
 @Entity
 @Table(name = "verification")
 @Getter
@@ -15,4 +17,7 @@ public class Verification {
 
     private String email;
     private Integer code;
+    private Instant expiresAt;
+    // Failed checks against this code so far
+    private int attempts;
 }
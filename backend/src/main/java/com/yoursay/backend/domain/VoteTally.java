@@ -0,0 +1,12 @@
+package com.yoursay.backend.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class VoteTally {
+    private Integer bill_id;
+    private long yes;
+    private long no;
+}
@@ -0,0 +1,192 @@
+package com.yoursay.backend.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Throttles the API per client and sheds load. Each request is matched against ratelimit.routes, a comma separated
+// list of pattern:capacity:perMinute[:global] entries where the first matching pattern wins. Matched requests take
+// a token from the bucket of their client, the authenticated email or else the remote IP, or from one bucket shared
+// by everyone for global routes. On top of that at most ratelimit.max-concurrent requests are handled at a time,
+// counting async requests until their response completes. Long-lived streams matching ratelimit.unbounded-paths
+// have their own subscriber ceiling and are left out of that budget. Both limits answer 429 with Retry-After.
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final long MAX_TRACKED_CLIENTS = 100_000;
+
+    record Route(String pattern, int capacity, double perMinute, boolean global, Counter rejected) {
+        long retryAfterSeconds() {
+            return Math.max(1, (long) Math.ceil(60 / perMinute));
+        }
+    }
+
+    private final boolean enabled;
+    private final List<Route> routes;
+    private final List<String> unboundedPaths;
+    private final Semaphore concurrency;
+    private final AntPathMatcher matcher = new AntPathMatcher();
+    private final Cache<String, TokenBucket> buckets;
+
+    private final Counter shed;
+
+    public RateLimitFilter(MeterRegistry meterRegistry,
+                           @Value("${ratelimit.enabled:true}") boolean enabled,
+                           @Value("${ratelimit.routes:}") String routes,
+                           @Value("${ratelimit.max-concurrent:200}") int maxConcurrent,
+                           @Value("${ratelimit.unbounded-paths:}") List<String> unboundedPaths) {
+        this.enabled = enabled;
+        this.routes = parseRoutes(routes, meterRegistry);
+        this.unboundedPaths = unboundedPaths.stream().map(String::trim).filter(p -> !p.isEmpty()).toList();
+        this.concurrency = new Semaphore(maxConcurrent);
+        // An idle bucket is full again well within the hour, so forgetting it after that changes nothing
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(MAX_TRACKED_CLIENTS)
+                .expireAfterAccess(Duration.ofHours(1))
+                .build();
+        this.shed = Counter.builder("ratelimit.rejected").tag("reason", "concurrency").tag("route", "*").register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        Route route = match(path);
+        if (route != null) {
+            String key = route.global() ? route.pattern() : route.pattern() + "|" + clientKey(request);
+            TokenBucket bucket = buckets.get(key, k -> new TokenBucket(route.capacity(), route.perMinute() / 60.0));
+            if (!bucket.tryConsume()) {
+                route.rejected().increment();
+                reject(response, route.retryAfterSeconds());
+                return;
+            }
+        }
+
+        if (isUnbounded(path)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!concurrency.tryAcquire()) {
+            shed.increment();
+            reject(response, 1);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // Async handlers (logins, summaries, streams) are still running when the chain returns, so their permit
+            // is held until the response completes. The async dispatch itself skips this filter.
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnCompletion());
+            } else {
+                concurrency.release();
+            }
+        }
+    }
+
+    private final class ReleaseOnCompletion implements AsyncListener {
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Listeners are dropped when async is started again, so stay registered on the new context
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                concurrency.release();
+            }
+        }
+    }
+
+    private Route match(String path) {
+        for (Route route : routes) {
+            if (matcher.match(route.pattern(), path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private boolean isUnbounded(String path) {
+        for (String pattern : unboundedPaths) {
+            if (matcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken)) {
+            return "user:" + auth.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static void reject(HttpServletResponse response, long retryAfterSeconds) throws IOException {
+        response.setStatus(429);
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        response.setContentType("text/plain");
+        response.getWriter().write("Too many requests, try again later.");
+    }
+
+    static List<Route> parseRoutes(String spec, MeterRegistry meterRegistry) {
+        List<Route> routes = new ArrayList<>();
+        for (String entry : spec.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.trim().split(":");
+            if (parts.length < 3 || parts.length > 4 || (parts.length == 4 && !parts[3].equals("global"))) {
+                throw new IllegalArgumentException("Expected pattern:capacity:perMinute[:global] but got " + entry.trim());
+            }
+            String pattern = parts[0];
+            Counter rejected = Counter.builder("ratelimit.rejected").tag("reason", "rate").tag("route", pattern).register(meterRegistry);
+            routes.add(new Route(pattern, Integer.parseInt(parts[1]), Double.parseDouble(parts[2]), parts.length == 4, rejected));
+        }
+        return routes;
+    }
+}
@@ -0,0 +1,61 @@
+package com.yoursay.backend.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Lock-free token bucket implemented as a generic cell rate algorithm: the whole bucket state is a single
+// "theoretical arrival time" that is advanced with CAS, so it is safe to share across threads.
+public class TokenBucket {
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final LongSupplier clock;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(int capacity, double tokensPerSecond) {
+        this(capacity, tokensPerSecond, System::nanoTime);
+    }
+
+    public TokenBucket(int capacity, double tokensPerSecond, LongSupplier clock) {
+        if (capacity < 1 || tokensPerSecond <= 0) {
+            throw new IllegalArgumentException("capacity and tokensPerSecond must be positive");
+        }
+        this.emissionIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / tokensPerSecond);
+        this.burstToleranceNanos = emissionIntervalNanos * capacity;
+        this.clock = clock;
+        this.theoreticalArrival = new AtomicLong(clock.getAsLong());
+    }
+
+    public boolean tryConsume() {
+        while (true) {
+            long now = clock.getAsLong();
+            long tat = theoreticalArrival.get();
+            long next = Math.max(tat, now) + emissionIntervalNanos;
+            if (next - now > burstToleranceNanos) {
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(tat, next)) {
+                return true;
+            }
+        }
+    }
+
+    // Reserves the next token and returns how long the caller has to wait before using it.
+    public long reserveNanos() {
+        while (true) {
+            long now = clock.getAsLong();
+            long tat = theoreticalArrival.get();
+            long next = Math.max(tat, now) + emissionIntervalNanos;
+            if (theoreticalArrival.compareAndSet(tat, next)) {
+                return Math.max(0, next - burstToleranceNanos - now);
+            }
+        }
+    }
+
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserveNanos();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.yoursay.backend.repository;
+
+import com.yoursay.backend.domain.AiSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Optional;
+
+public interface AiSummaryRepository extends JpaRepository<AiSummary, Long> {
+    @Query("SELECT s FROM AiSummary s WHERE s.state = :state AND s.bill_id = :bill_id")
+    Optional<AiSummary> findByStateAndBillId(String state, String bill_id);
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO ai_summary (state, bill_id, summary) VALUES (:state, :bill_id, :summary) " +
+            "ON CONFLICT (state, bill_id) DO UPDATE SET summary = EXCLUDED.summary, created_at = CURRENT_TIMESTAMP",
+            nativeQuery = true)
+    void upsert(String state, String bill_id, String summary);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AiSummary s WHERE s.bill_id IN :billIds")
+    int deleteByBillIds(Collection<String> billIds);
+}
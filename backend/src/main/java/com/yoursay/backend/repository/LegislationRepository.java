@@ -1,20 +1,70 @@
 package com.yoursay.backend.repository;
 
+import com.yoursay.backend.domain.BillLevel;
 import com.yoursay.backend.domain.Legislation;
+import com.yoursay.backend.domain.LegislationSummary;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface LegislationRepository extends JpaRepository<Legislation, Long> {
-    List<Legislation> findByZipcodeAndBillLevel(String zipcode, String bill_level);
+public interface LegislationRepository extends JpaRepository<Legislation, Long>, LegislationRepositoryCustom {
+    List<Legislation> findByZipcodeAndBillLevel(String zipcode, BillLevel bill_level);
 
-    List<Legislation> findByStateAndBillLevel(String state, String bill_level);
+    List<Legislation> findByStateAndBillLevel(String state, BillLevel bill_level);
 
-    @Modifying
-    @Query("DELETE FROM Legislation")
-    void deleteAllLegislation();
+    // Keyset pages ordered newest first on (bill_date, id) with undated bills last; the caller passes the last row of
+    // the previous page, whose billDate is null once paging has reached the undated bills
+    @Query("SELECT new com.yoursay.backend.domain.LegislationSummary(l.id, l.bill_id, l.title, l.billLevel, l.state, " +
+            "l.zipcode, l.city, l.billDate, l.category) FROM Legislation l " +
+            "WHERE l.billLevel = :billLevel AND l.state = :state AND (:category IS NULL OR l.category = :category) " +
+            "AND ((:billDate IS NOT NULL AND (l.billDate < :billDate OR (l.billDate = :billDate AND l.id < :id) OR l.billDate IS NULL)) " +
+            "OR (:billDate IS NULL AND l.billDate IS NULL AND l.id < :id)) " +
+            "ORDER BY l.billDate DESC NULLS LAST, l.id DESC")
+    List<LegislationSummary> findPageByState(BillLevel billLevel, String state, String category,
+                                             LocalDate billDate, Long id, Pageable pageable);
+
+    @Query("SELECT new com.yoursay.backend.domain.LegislationSummary(l.id, l.bill_id, l.title, l.billLevel, l.state, " +
+            "l.zipcode, l.city, l.billDate, l.category) FROM Legislation l " +
+            "WHERE l.billLevel = :billLevel AND l.zipcode = :zipcode AND (:category IS NULL OR l.category = :category) " +
+            "AND ((:billDate IS NOT NULL AND (l.billDate < :billDate OR (l.billDate = :billDate AND l.id < :id) OR l.billDate IS NULL)) " +
+            "OR (:billDate IS NULL AND l.billDate IS NULL AND l.id < :id)) " +
+            "ORDER BY l.billDate DESC NULLS LAST, l.id DESC")
+    List<LegislationSummary> findPageByZipcode(BillLevel billLevel, String zipcode, String category,
+                                               LocalDate billDate, Long id, Pageable pageable);
+
+    // Samples up to perLevel bills from each of the local, state and federal feeds in one statement. Rows are ranked
+    // per level by an exponential sampling key, so bills in a preferred category are proportionally more likely
+    // to be picked. With rotate=true the key comes from a seeded hash of the id instead of RANDOM(), giving a
+    // stable order for a given offset that shifts as the offset changes.
+    @Query(value = """
+            WITH ranked AS (
+                SELECT l.*,
+                       -LN(CASE WHEN :rotate THEN (MOD(l.id * 2654435761 + :offset, 2147483647) + 1) / 2147483648.0
+                                ELSE 1 - RANDOM() END)
+                           / CASE WHEN l.category IN (:preferred) THEN :preferenceWeight ELSE 1.0 END AS sample_key
+                FROM legislation l
+                WHERE (l.bill_level = 'LOCAL' AND l.zipcode = :zipcode)
+                   OR (l.bill_level = 'STATE' AND l.state = :state)
+                   OR (l.bill_level = 'FEDERAL' AND l.state = 'US')
+            ), sampled AS (
+                SELECT r.*, ROW_NUMBER() OVER (PARTITION BY r.bill_level ORDER BY r.sample_key) AS level_rank
+                FROM ranked r
+            )
+            SELECT id, bill_id, title, description, bill_level, state, zipcode, city, bill_date, category, change_hash
+            FROM sampled
+            WHERE level_rank <= :perLevel
+            ORDER BY level_rank, CASE bill_level WHEN 'LOCAL' THEN 0 WHEN 'STATE' THEN 1 ELSE 2 END
+            """, nativeQuery = true)
+    List<Legislation> sampleFeed(String zipcode, String state, int perLevel, boolean rotate, long offset,
+                                 Collection<String> preferred, double preferenceWeight);
+
+    @Query("SELECT l FROM Legislation l WHERE l.bill_id = :bill_id")
+    Optional<Legislation> findByBillId(Integer bill_id);
 }
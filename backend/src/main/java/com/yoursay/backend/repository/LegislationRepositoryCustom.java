@@ -0,0 +1,21 @@
+package com.yoursay.backend.repository;
+
+import com.yoursay.backend.domain.Legislation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface LegislationRepositoryCustom {
+    // Inserts new bills and updates existing ones only when their change_hash or status_date moved.
+    // Returns the bill ids that were actually written.
+    List<Integer> upsertImported(List<Legislation> bills);
+
+    // Removes imported (non-local) bills for a state that are no longer part of its master list window.
+    // Does nothing when keepBillIds is empty, since an empty window is treated as a failed fetch.
+    int deleteImportedExcept(String state, Collection<Integer> keepBillIds);
+
+    // Upserts a state's current master list window and prunes everything else in one transaction.
+    @Transactional
+    List<Integer> syncImportedState(String state, List<Legislation> bills);
+}
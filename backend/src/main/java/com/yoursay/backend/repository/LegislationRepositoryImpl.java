@@ -0,0 +1,68 @@
+package com.yoursay.backend.repository;
+
+import com.yoursay.backend.domain.Legislation;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class LegislationRepositoryImpl implements LegislationRepositoryCustom {
+    // Postgres allows 65535 bind parameters per statement; 8 per row keeps each chunk well below that
+    private static final int UPSERT_CHUNK_SIZE = 1000;
+    // RETURNING only yields rows that were inserted or passed the WHERE of the update, so unchanged bills are
+    // left out without relying on batch update counts, which drivers may report as SUCCESS_NO_INFO
+    private static final String UPSERT_SQL =
+            "INSERT INTO legislation (bill_id, title, description, bill_level, state, bill_date, category, change_hash) " +
+            "VALUES :rows " +
+            "ON CONFLICT (bill_id) DO UPDATE SET " +
+            "title = EXCLUDED.title, description = EXCLUDED.description, bill_level = EXCLUDED.bill_level, " +
+            "state = EXCLUDED.state, bill_date = EXCLUDED.bill_date, category = EXCLUDED.category, " +
+            "change_hash = EXCLUDED.change_hash " +
+            "WHERE legislation.change_hash IS DISTINCT FROM EXCLUDED.change_hash " +
+            "OR legislation.bill_date IS DISTINCT FROM EXCLUDED.bill_date " +
+            "RETURNING bill_id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public LegislationRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<Integer> upsertImported(List<Legislation> bills) {
+        List<Integer> written = new ArrayList<>();
+        for (int from = 0; from < bills.size(); from += UPSERT_CHUNK_SIZE) {
+            List<Object[]> rows = new ArrayList<>();
+            for (Legislation bill : bills.subList(from, Math.min(bills.size(), from + UPSERT_CHUNK_SIZE))) {
+                rows.add(new Object[]{bill.getBill_id(), bill.getTitle(), bill.getDescription(), bill.getBillLevel().name(),
+                        bill.getState(), bill.getBillDate(), bill.getCategory(), bill.getChangeHash()});
+            }
+            written.addAll(jdbcTemplate.queryForList(UPSERT_SQL, new MapSqlParameterSource("rows", rows), Integer.class));
+        }
+        return written;
+    }
+
+    @Override
+    public int deleteImportedExcept(String state, Collection<Integer> keepBillIds) {
+        // Nothing to keep means the master list came back empty or fully filtered, which is far more likely a bad
+        // fetch than a state without bills, so leave the existing rows alone instead of wiping the state
+        if (keepBillIds.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("state", state)
+                .addValue("keep", keepBillIds);
+        return jdbcTemplate.update(
+                "DELETE FROM legislation WHERE state = :state AND bill_level <> 'LOCAL' AND bill_id NOT IN (:keep)",
+                params);
+    }
+
+    @Override
+    public List<Integer> syncImportedState(String state, List<Legislation> bills) {
+        List<Integer> written = upsertImported(bills);
+        deleteImportedExcept(state, bills.stream().map(Legislation::getBill_id).toList());
+        return written;
+    }
+}
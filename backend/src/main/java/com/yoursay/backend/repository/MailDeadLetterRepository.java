@@ -0,0 +1,7 @@
+package com.yoursay.backend.repository;
+
+import com.yoursay.backend.domain.MailDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface MailDeadLetterRepository extends JpaRepository<MailDeadLetter, Long> {
+}
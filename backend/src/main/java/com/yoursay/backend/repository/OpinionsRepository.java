@@ -6,13 +6,26 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface OpinionsRepository extends JpaRepository<Opinion, Long> {
+    interface BillOpinionRow {
+        Integer getBillId();
+        long getOpinionCount();
+        String getCallerOpinion();
+    }
+
     List<Opinion> findByEmail(String email);
 
     @Modifying
     @Transactional
-    @Query("DELETE FROM Opinion o WHERE o.email = :email AND o.bill_id = :bill_id")
-    void deleteByEmailAndBillId(String email, Integer bill_id);
-}
\ No newline at end of file
+    @Query(value = "INSERT INTO opinions (email, bill_id, opinion) VALUES (:email, :bill_id, :opinion) " +
+            "ON CONFLICT (email, bill_id) DO UPDATE SET opinion = EXCLUDED.opinion", nativeQuery = true)
+    void upsert(String email, Integer bill_id, String opinion);
+
+    @Query(value = "SELECT bill_id AS billId, COUNT(*) AS opinionCount, " +
+            "MAX(CASE WHEN email = :email THEN opinion END) AS callerOpinion " +
+            "FROM opinions WHERE bill_id IN (:billIds) GROUP BY bill_id", nativeQuery = true)
+    List<BillOpinionRow> summarizeBills(String email, Collection<Integer> billIds);
+}
@@ -0,0 +1,27 @@
+package com.yoursay.backend.repository;
+
+import com.yoursay.backend.domain.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+    // Single use across instances: only the first caller to rotate a token gets 1 back
+    @Modifying
+    @Transactional
+    @Query("UPDATE RefreshToken t SET t.rotatedAt = :now WHERE t.tokenHash = :tokenHash AND t.rotatedAt IS NULL AND t.revoked = false")
+    int markRotated(String tokenHash, Instant now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE RefreshToken t SET t.revoked = true WHERE t.familyId = :familyId")
+    int revokeFamily(String familyId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken t WHERE t.expiresAt < :now")
+    int deleteExpired(Instant now);
+}
@@ -18,4 +18,9 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Transactional
     @Query("UPDATE User u SET u.preferences = :preferences WHERE u.email = :email")
     void updatePreferences(String email, String preferences);
-}
\ No newline at end of file
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :hash WHERE u.email = :email AND u.password = :previous")
+    int updatePasswordIfUnchanged(String email, String previous, String hash);
+}
@@ -6,6 +6,8 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.jpa.repository.Query;
 
+import java.time.Instant;
+
 public interface VerificationRepository extends JpaRepository<Verification, Long> {
     Verification findByEmail(String email);
 
@@ -13,4 +15,19 @@ public interface VerificationRepository extends JpaRepository<Verification, Long
     @Transactional
     @Query("DELETE FROM Verification v WHERE v.email = :email")
     void deleteByEmail(String email);
-}
\ No newline at end of file
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Verification v SET v.code = :code, v.expiresAt = :expiresAt, v.attempts = 0 WHERE v.email = :email")
+    int replaceCode(String email, Integer code, Instant expiresAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Verification v SET v.attempts = :attempts WHERE v.email = :email")
+    void updateAttempts(String email, int attempts);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Verification v WHERE v.expiresAt < :now")
+    int deleteExpired(Instant now);
+}
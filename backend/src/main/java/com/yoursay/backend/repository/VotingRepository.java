@@ -2,17 +2,26 @@ package com.yoursay.backend.repository;
 
 import com.yoursay.backend.domain.Vote;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
-public interface VotingRepository extends JpaRepository<Vote, Long> {
+public interface VotingRepository extends JpaRepository<Vote, Long>, VotingRepositoryCustom {
+    interface BillTallyRow {
+        Integer getBillId();
+        long getYesCount();
+        long getNoCount();
+    }
+
     List<Vote> findByEmail(String email);
 
-    @Modifying
-    @Transactional
-    @Query("DELETE FROM Vote v WHERE v.email = :email AND v.bill_id = :bill_id")
-    void deleteByEmailAndBillId(String email, Integer bill_id);
-}
\ No newline at end of file
+    @Query("SELECT v FROM Vote v WHERE v.email = :email AND v.bill_id IN :billIds")
+    List<Vote> findByEmailAndBillIds(String email, Collection<Integer> billIds);
+
+    @Query(value = "SELECT bill_id AS billId, " +
+            "SUM(CASE WHEN vote THEN 1 ELSE 0 END) AS yesCount, " +
+            "SUM(CASE WHEN NOT vote THEN 1 ELSE 0 END) AS noCount " +
+            "FROM voting WHERE bill_id IS NOT NULL GROUP BY bill_id", nativeQuery = true)
+    List<BillTallyRow> tallyAllBills();
+}
@@ -0,0 +1,17 @@
+package com.yoursay.backend.repository;
+
+import com.yoursay.backend.domain.VoteRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface VotingRepositoryCustom {
+    // Upserts one vote and returns the vote it replaced, or null for a first vote. The previous value is read under
+    // the row lock of the write, so concurrent writers to the same (email, bill_id) each see the vote they replaced.
+    Boolean upsert(String email, Integer billId, Boolean vote);
+
+    // Upserts a batch of votes on (email, bill_id) and returns the vote each one replaced (null for first votes),
+    // in input order. The batch must not contain the same (email, bill_id) twice.
+    @Transactional
+    List<Boolean> upsertAll(List<VoteRequest> votes);
+}
@@ -0,0 +1,87 @@
+package com.yoursay.backend.repository;
+
+import com.yoursay.backend.domain.VoteRequest;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class VotingRepositoryImpl implements VotingRepositoryCustom {
+    private static final String PREVIOUS_SQL =
+            "SELECT email, bill_id, vote FROM voting WHERE (email, bill_id) IN (:keys)";
+    // The locking subquery waits for a concurrent writer and then reads the value it committed
+    private static final String UPDATE_RETURNING_PREVIOUS_SQL =
+            "UPDATE voting v SET vote = :vote " +
+            "FROM (SELECT id, vote FROM voting WHERE email = :email AND bill_id = :billId FOR UPDATE) previous " +
+            "WHERE v.id = previous.id RETURNING previous.vote";
+    private static final String INSERT_FIRST_SQL =
+            "INSERT INTO voting (email, bill_id, vote) VALUES (:email, :billId, :vote) " +
+            "ON CONFLICT (email, bill_id) DO NOTHING";
+    private static final String UPSERT_SQL =
+            "INSERT INTO voting (email, bill_id, vote) VALUES (:email, :billId, :vote) " +
+            "ON CONFLICT (email, bill_id) DO UPDATE SET vote = EXCLUDED.vote";
+
+    private record VoteKey(String email, Integer billId) {
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public VotingRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Boolean upsert(String email, Integer billId, Boolean vote) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("email", email)
+                .addValue("billId", billId)
+                .addValue("vote", vote);
+        while (true) {
+            List<Boolean> previous = jdbcTemplate.query(UPDATE_RETURNING_PREVIOUS_SQL, params, (rs, i) -> {
+                boolean value = rs.getBoolean(1);
+                return rs.wasNull() ? null : value;
+            });
+            if (!previous.isEmpty()) {
+                return previous.get(0);
+            }
+            if (jdbcTemplate.update(INSERT_FIRST_SQL, params) == 1) {
+                return null;
+            }
+            // Another writer inserted the first vote in between; update that row instead
+        }
+    }
+
+    @Override
+    public List<Boolean> upsertAll(List<VoteRequest> votes) {
+        if (votes.isEmpty()) {
+            return List.of();
+        }
+        List<Object[]> keys = new ArrayList<>(votes.size());
+        SqlParameterSource[] batch = new SqlParameterSource[votes.size()];
+        for (int i = 0; i < votes.size(); i++) {
+            VoteRequest vote = votes.get(i);
+            keys.add(new Object[]{vote.getEmail(), vote.getBill_id()});
+            batch[i] = new MapSqlParameterSource()
+                    .addValue("email", vote.getEmail())
+                    .addValue("billId", vote.getBill_id())
+                    .addValue("vote", vote.getVote());
+        }
+
+        Map<VoteKey, Boolean> previous = new HashMap<>();
+        jdbcTemplate.query(PREVIOUS_SQL, new MapSqlParameterSource("keys", keys), rs -> {
+            Boolean vote = rs.getBoolean("vote");
+            previous.put(new VoteKey(rs.getString("email"), rs.getInt("bill_id")), rs.wasNull() ? null : vote);
+        });
+        jdbcTemplate.batchUpdate(UPSERT_SQL, batch);
+
+        List<Boolean> replaced = new ArrayList<>(votes.size());
+        for (VoteRequest vote : votes) {
+            replaced.add(previous.get(new VoteKey(vote.getEmail(), vote.getBill_id())));
+        }
+        return replaced;
+    }
+}
@@ -25,14 +25,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         try {
             String header = request.getHeader("Authorization");
-            String token = null;
             String email = null;
 
             if (header != null && header.startsWith("Bearer ")) {
-                token = header.substring(7);
-                if (jwtUtil.validateToken(token)) {
-                    email = jwtUtil.getEmailFromToken(token);
-                }
+                email = jwtUtil.getEmailFromToken(header.substring(7));
             }
 
             if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
@@ -1,12 +1,17 @@
 package com.yoursay.backend.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtUtil {
@@ -16,10 +21,46 @@ public class JwtUtil {
     @Value("${jwt.expiration.ms:3600000}")
     private int jwtExpirationMs;
 
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private long verifiedCacheSize;
+
+    private Key key;
+    private JwtParser parser;
+    // Tokens whose signature already checked out, kept until the token itself expires
+    private Cache<String, Claims> verified;
+
+    @PostConstruct
+    void init() {
+        key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        parser = Jwts.parserBuilder().setSigningKey(key).build();
+        verified = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String token, Claims claims, long currentTime) {
+                        Date expiration = claims.getExpiration();
+                        if (expiration == null) {
+                            return 0;
+                        }
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, expiration.getTime() - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
     public String generateToken(String email) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
-        Key key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
         return Jwts.builder()
                 .setSubject(email)
                 .setIssuedAt(now)
@@ -28,20 +69,23 @@ public class JwtUtil {
                 .compact();
     }
 
-    public String getEmailFromToken(String token) {
-        Key key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-        return Jwts.parserBuilder().setSigningKey(key).build()
-                .parseClaimsJws(token).getBody().getSubject();
-    }
-
-    public boolean validateToken(String token) {
+    // Verifies the token and returns its claims, or null when it is malformed, forged or expired
+    public Claims verify(String token) {
+        Claims claims = verified.getIfPresent(token);
+        if (claims != null) {
+            return claims;
+        }
         try {
-            Key key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            return true;
+            claims = parser.parseClaimsJws(token).getBody();
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return null;
         }
+        verified.put(token, claims);
+        return claims;
     }
-}
 
+    public String getEmailFromToken(String token) {
+        Claims claims = verify(token);
+        return claims == null ? null : claims.getSubject();
+    }
+}
@@ -0,0 +1,103 @@
+package com.yoursay.backend.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Password hashing and checks run on a small dedicated pool instead of the servlet threads. Every bcrypt round is
+// deliberately expensive, so the pool is capped below the core count and has a short queue; once that is full new
+// work is rejected at once and a login storm cannot starve the rest of the API.
+@Component
+public class PasswordHasher {
+    private static final String[] BCRYPT_PREFIXES = {"$2a$", "$2b$", "$2y$"};
+
+    // Result of a check; upgradedHash is set when the stored password was a legacy plaintext value that matched
+    public record PasswordCheck(boolean matches, String upgradedHash) {
+    }
+
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    // Checked against when the account does not exist, so unknown emails cost the same as wrong passwords
+    private final String dummyHash;
+
+    private final Timer hashTimer;
+    private final Counter rejections;
+
+    public PasswordHasher(MeterRegistry meterRegistry,
+                          @Value("${auth.password.bcrypt-strength:10}") int strength,
+                          @Value("${auth.password.concurrency:0}") int concurrency,
+                          @Value("${auth.password.queue-capacity:64}") int queueCapacity) {
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.dummyHash = encoder.encode("dummy-password");
+        this.hashTimer = Timer.builder("auth.password.hash").publishPercentiles(0.5, 0.99).register(meterRegistry);
+        this.rejections = Counter.builder("auth.password.rejected").register(meterRegistry);
+
+        int threads = concurrency > 0 ? concurrency : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "password-hash-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (job, pool) -> {
+                    rejections.increment();
+                    throw new RejectedExecutionException("Password hashing is saturated");
+                });
+    }
+
+    // Throws RejectedExecutionException when the hashing queue is full
+    public CompletableFuture<PasswordCheck> verify(String raw, String stored) {
+        return submit(() -> {
+            if (stored == null) {
+                encoder.matches(raw, dummyHash);
+                return new PasswordCheck(false, null);
+            }
+            if (isHashed(stored)) {
+                return new PasswordCheck(encoder.matches(raw, stored), null);
+            }
+            if (raw != null && MessageDigest.isEqual(raw.getBytes(StandardCharsets.UTF_8), stored.getBytes(StandardCharsets.UTF_8))) {
+                return new PasswordCheck(true, encoder.encode(raw));
+            }
+            return new PasswordCheck(false, null);
+        });
+    }
+
+    // Throws RejectedExecutionException when the hashing queue is full
+    public CompletableFuture<String> hash(String raw) {
+        return submit(() -> encoder.encode(raw));
+    }
+
+    public static boolean isHashed(String stored) {
+        for (String prefix : BCRYPT_PREFIXES) {
+            if (stored.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> work) {
+        return CompletableFuture.supplyAsync(() -> hashTimer.record(work), executor);
+    }
+}
@@ -0,0 +1,157 @@
+package com.yoursay.backend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.yoursay.backend.domain.RefreshToken;
+import com.yoursay.backend.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Opaque, single-use refresh tokens. Each refresh rotates the token within its login's family; presenting a token
+// that was already rotated means it leaked, so the whole family is revoked. Rows live in refresh_token, keyed by
+// the token's SHA-256, and a bounded in-memory store in front keeps each session until it expires, so most checks
+// never reach the table. Sessions evicted for size are loaded back from the table on their next refresh.
+@Slf4j
+@Component
+public class RefreshTokenStore {
+    private static final int TOKEN_BYTES = 32;
+
+    // A newly issued refresh token and the account it belongs to
+    public record Rotation(String email, String refreshToken) {
+    }
+
+    private record Session(String email, String familyId, Instant expiresAt, boolean usable) {
+        Session used() {
+            return new Session(email, familyId, expiresAt, false);
+        }
+    }
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Duration ttl;
+    private final SecureRandom random = new SecureRandom();
+    private final Cache<String, Session> sessions;
+    // Families revoked for reuse. Their tokens may still sit in sessions, so rotate checks here first. Every token
+    // of a family was issued before its revocation, so none outlives an entry kept for the token ttl; an entry
+    // evicted for size early is still caught by markRotated, which refuses revoked rows.
+    private final Cache<String, Boolean> revokedFamilies;
+
+    private final Counter reuse;
+
+    public RefreshTokenStore(RefreshTokenRepository refreshTokenRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${jwt.refresh.expiration-days:30}") long ttlDays,
+                             @Value("${jwt.refresh.cache.max-size:500000}") long maxSize) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.ttl = Duration.ofDays(ttlDays);
+        this.reuse = Counter.builder("auth.refresh.reuse").register(meterRegistry);
+        // Entries expire with their token on Caffeine's timer wheel, so expired sessions never need a scan
+        this.sessions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Session>() {
+                    @Override
+                    public long expireAfterCreate(String hash, Session session, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, session.expiresAt().toEpochMilli() - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String hash, Session session, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String hash, Session session, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        this.revokedFamilies = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    // Starts a new login family
+    public String issue(String email) {
+        return issue(email, UUID.randomUUID().toString());
+    }
+
+    // Exchanges a refresh token for a new one. Empty when the token is unknown, expired, revoked or replayed.
+    public Optional<Rotation> rotate(String token) {
+        String hash = hash(token);
+        Session session = sessions.get(hash, this::load);
+        if (session == null || !session.expiresAt().isAfter(Instant.now())
+                || revokedFamilies.getIfPresent(session.familyId()) != null) {
+            return Optional.empty();
+        }
+        // The conditional update settles races between requests and instances: only one caller rotates a token
+        if (!session.usable() || refreshTokenRepository.markRotated(hash, Instant.now()) == 0) {
+            revokeFamily(session);
+            return Optional.empty();
+        }
+        sessions.put(hash, session.used());
+        return Optional.of(new Rotation(session.email(), issue(session.email(), session.familyId())));
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(Instant.now());
+        if (deleted > 0) {
+            log.info("Purged {} expired refresh tokens", deleted);
+        }
+    }
+
+    private String issue(String email, String familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken row = new RefreshToken();
+        row.setTokenHash(hash(token));
+        row.setFamilyId(familyId);
+        row.setEmail(email);
+        row.setExpiresAt(Instant.now().plus(ttl));
+        refreshTokenRepository.save(row);
+        sessions.put(row.getTokenHash(), new Session(email, familyId, row.getExpiresAt(), true));
+        return token;
+    }
+
+    private void revokeFamily(Session session) {
+        reuse.increment();
+        revokedFamilies.put(session.familyId(), Boolean.TRUE);
+        refreshTokenRepository.revokeFamily(session.familyId());
+        log.warn("Refresh token reuse for {}, revoked its login family", session.email());
+    }
+
+    private Session load(String hash) {
+        return refreshTokenRepository.findById(hash)
+                .map(row -> new Session(row.getEmail(), row.getFamilyId(), row.getExpiresAt(),
+                        !row.isRevoked() && row.getRotatedAt() == null))
+                .orElse(null);
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
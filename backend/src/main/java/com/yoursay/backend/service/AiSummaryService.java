@@ -0,0 +1,188 @@
+package com.yoursay.backend.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.yoursay.backend.domain.AiSummary;
+import com.yoursay.backend.domain.Legislation;
+import com.yoursay.backend.domain.LegislationChangedEvent;
+import com.yoursay.backend.domain.SummaryResult;
+import com.yoursay.backend.repository.AiSummaryRepository;
+import com.yoursay.backend.repository.LegislationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+// Bill summaries are generated once per (state, bill_id), stored in ai_summary and kept in an in-memory LRU.
+// Concurrent requests for the same uncached bill share one in-flight load, so the model is called at most once.
+// Summaries are dropped when the import reports the bill as new or changed.
+// Readers never wait longer than ai.summary.timeout-ms: when the model is slow or its queue is full they get
+// the bill's own description, truncated, and the model call carries on to fill the cache for the next reader.
+@Slf4j
+@Service
+public class AiSummaryService {
+    private static final int FALLBACK_LENGTH = 400;
+
+    record SummaryKey(String state, String billId) {
+    }
+
+    private final SummaryModelClient summaryModelClient;
+    private final AiSummaryRepository aiSummaryRepository;
+    private final LegislationRepository legislationRepository;
+    private final long timeoutMs;
+    private final ExecutorService executor;
+    private final AsyncCache<SummaryKey, String> summaries;
+
+    private final Counter timeouts;
+    private final Counter rejections;
+
+    public AiSummaryService(SummaryModelClient summaryModelClient,
+                            AiSummaryRepository aiSummaryRepository,
+                            LegislationRepository legislationRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${ai.summary.cache.max-size:5000}") long maxSize,
+                            @Value("${ai.summary.concurrency:4}") int concurrency,
+                            @Value("${ai.summary.queue-capacity:50}") int queueCapacity,
+                            @Value("${ai.summary.timeout-ms:8000}") long timeoutMs) {
+        this.summaryModelClient = summaryModelClient;
+        this.aiSummaryRepository = aiSummaryRepository;
+        this.legislationRepository = legislationRepository;
+        this.timeoutMs = timeoutMs;
+        this.timeouts = Counter.builder("ai.summary.fallback").tag("reason", "timeout").register(meterRegistry);
+        this.rejections = Counter.builder("ai.summary.fallback").tag("reason", "saturated").register(meterRegistry);
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "ai-summary-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.summaries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .buildAsync();
+    }
+
+    // Summarizes an imported bill from its stored title and state; empty when no imported bill has that id.
+    // The returned future never completes exceptionally and never takes longer than the configured timeout.
+    public Optional<CompletableFuture<SummaryResult>> summarizeForReader(String billId) {
+        Optional<Legislation> bill = findBill(billId);
+        if (bill.isEmpty()) {
+            return Optional.empty();
+        }
+        Legislation legislation = bill.get();
+        String id = String.valueOf(legislation.getBill_id());
+        CompletableFuture<String> summary;
+        try {
+            summary = summarize(legislation.getState(), id, legislation.getTitle());
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            return Optional.of(CompletableFuture.completedFuture(fallback(legislation)));
+        }
+        // Time out a copy so the shared load keeps running for everyone else waiting on it
+        return Optional.of(summary.copy()
+                .orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .handle((text, error) -> {
+                    if (error == null && text != null) {
+                        return new SummaryResult(text, false);
+                    }
+                    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                    if (cause instanceof TimeoutException) {
+                        timeouts.increment();
+                    } else if (cause != null) {
+                        log.warn("Summarizing bill {} failed: {}", id, cause.getMessage());
+                    }
+                    return fallback(legislation);
+                }));
+    }
+
+    // Callers pass the bill's stored state and title, never client input, since the result is shared by every reader.
+    // Throws RejectedExecutionException when the model queue is full
+    public CompletableFuture<String> summarize(String state, String billId, String title) {
+        SummaryKey key = new SummaryKey(normalizeState(state), billId);
+        // A failed or empty load completes the shared future without a value, and Caffeine drops the entry
+        return summaries.get(key, (k, cacheExecutor) -> CompletableFuture.supplyAsync(() -> load(k, title), executor));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onLegislationChanged(LegislationChangedEvent event) {
+        if (event.getChangedBillIds().isEmpty()) {
+            return;
+        }
+        Set<String> billIds = event.getChangedBillIds().stream().map(String::valueOf).collect(Collectors.toSet());
+        int deleted = aiSummaryRepository.deleteByBillIds(billIds);
+        summaries.synchronous().asMap().keySet().removeIf(key -> billIds.contains(key.billId()));
+        if (deleted > 0) {
+            log.info("Dropped {} stale AI summaries for {} {}", deleted, event.getBillLevel(), event.getRegion());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private String load(SummaryKey key, String title) {
+        return aiSummaryRepository.findByStateAndBillId(key.state(), key.billId())
+                .map(AiSummary::getSummary)
+                .orElseGet(() -> {
+                    String summary = summaryModelClient.summarizeBill(key.state(), key.billId(), title);
+                    if (summary == null || summary.isBlank()) {
+                        return null;
+                    }
+                    aiSummaryRepository.upsert(key.state(), key.billId(), summary);
+                    return summary;
+                });
+    }
+
+    private Optional<Legislation> findBill(String billId) {
+        if (billId == null) {
+            return Optional.empty();
+        }
+        try {
+            return legislationRepository.findByBillId(Integer.valueOf(billId.trim()));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static SummaryResult fallback(Legislation bill) {
+        String description = bill.getDescription();
+        if (description == null || description.isBlank()) {
+            return new SummaryResult(bill.getTitle(), true);
+        }
+        return new SummaryResult(truncate(description.strip()), true);
+    }
+
+    static String truncate(String text) {
+        if (text.length() <= FALLBACK_LENGTH) {
+            return text;
+        }
+        int cut = text.lastIndexOf(' ', FALLBACK_LENGTH);
+        return text.substring(0, cut > FALLBACK_LENGTH / 2 ? cut : FALLBACK_LENGTH).stripTrailing() + "...";
+    }
+
+    private static String normalizeState(String state) {
+        return state == null ? "" : state.trim().toUpperCase(Locale.ROOT);
+    }
+}
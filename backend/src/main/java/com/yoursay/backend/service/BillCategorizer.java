@@ -0,0 +1,112 @@
+package com.yoursay.backend.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Scores every topic in one pass over a bill description. Keywords only count on word boundaries (so "law"
+// does not match "lawn"), with a trailing "s"/"es" accepted so plurals such as "taxes" or "schools" still count.
+// Each keyword counts once per description and ties go to the topic declared first.
+@Component
+public class BillCategorizer {
+    static final String OTHER = "Other";
+
+    // Topic keyword arrays
+    private static final String[] HEALTHCARE_KEYWORDS = {"healthcare", "medicare", "medicaid", "insurance", "hospital", "doctor", "nurse", "pharmaceutical", "mental", "public", "medical", "prescription", "clinic", "patient", "surgery", "dental", "vision", "wellness", "primary", "specialist", "emergency", "plan", "coverage", "drug", "treatment", "diagnosis", "preventive", "telemedicine", "technology", "epidemic", "pandemic", "vaccine", "immunization", "equity", "long-term", "nursing"};
+    private static final String[] EDUCATION_KEYWORDS = {"education", "school", "student", "teacher", "university", "college", "curriculum", "classroom", "scholarship", "loan", "tuition", "literacy", "stem", "elementary", "secondary", "k-12", "public", "private", "charter", "voucher", "financial", "degree", "diploma", "testing", "assessment", "special", "textbook", "funding", "lunch", "after", "early", "preschool", "head start"};
+    private static final String[] ECONOMY_KEYWORDS = {"economy", "job", "employment", "unemployment", "gdp", "inflation", "recession", "market", "trade", "business", "industry", "wage", "income", "growth", "stimulus", "minimum", "labor", "workforce", "manufacturing", "export", "import", "tariff", "small", "entrepreneur", "investment", "stock", "banking", "finance", "credit", "debt", "consumer", "poverty", "development", "subsidy", "bailout", "fiscal", "monetary", "interest", "training"};
+    private static final String[] ENVIRONMENT_KEYWORDS = {"environment", "climate", "pollution", "emission", "carbon", "renewable", "sustainability", "conservation", "wildlife", "recycling", "green", "energy", "warming", "epa", "air", "water", "waste", "toxic", "hazardous", "solar", "wind", "geothermal", "hydroelectric", "biodiversity", "ecosystem", "deforestation", "reforestation", "ocean", "marine", "endangered", "resource", "fossil", "oil", "gas", "coal", "change", "protection", "justice"};
+    private static final String[] IMMIGRATION_KEYWORDS = {"immigration", "border", "visa", "refugee", "asylum", "citizenship", "deportation", "migrant", "daca", "undocumented", "immigrant", "naturalization", "detention", "customs", "patrol", "sanctuary", "separation", "permit", "guest", "residency"};
+    private static final String[] GUN_CONTROL_KEYWORDS = {"gun", "firearm", "weapon", "second", "nra", "shooting", "assault", "concealed", "violence", "ammunition", "law", "safety", "magazine", "registration", "license", "red", "trafficking", "show", "dealer", "control", "mass", "self-defense", "stand", "buyback"};
+    private static final String[] CIVIL_RIGHTS_KEYWORDS = {"civil", "equality", "discrimination", "racism", "sexism", "lgbtq", "voting", "freedom", "justice", "inclusion", "diversity", "human", "protection", "affirmative", "hate", "disability", "gender", "racial", "religious", "liberties", "opportunity", "anti-discrimination", "marriage", "segregation", "integration", "minority", "social", "women", "transgender"};
+    private static final String[] FOREIGN_POLICY_KEYWORDS = {"foreign", "international", "diplomacy", "treaty", "sanction", "war", "military", "defense", "alliance", "united", "embassy", "aid", "ambassador", "relations", "law", "peacekeeping", "nato", "conflict", "arms", "nuclear", "counterterrorism", "investment", "overseas", "border", "cooperation", "humanitarian", "geopolitics"};
+    private static final String[] TAXES_KEYWORDS = {"tax", "irs", "income", "corporate", "cut", "reform", "deduction", "revenue", "taxpayer", "rate", "credit", "return", "property", "sales", "excise", "capital", "shelter", "evasion", "compliance", "code", "bracket", "withholding", "policy", "incentive", "estate", "inheritance", "refund"};
+    private static final String[] PUBLIC_SAFETY_KEYWORDS = {"public", "crime", "police", "firefighter", "emergency", "disaster", "rescue", "first", "law", "safety", "security", "prevention", "ambulance", "paramedic", "911", "community", "health", "relief", "evacuation", "hazard", "threat", "risk", "order", "regulation", "fire", "traffic", "school", "domestic", "child"};
+    private static final String[] INFRASTRUCTURE_KEYWORDS = {"infrastructure", "road", "bridge", "transportation", "transit", "rail", "airport", "port", "water", "sewer", "broadband", "utility", "construction", "maintenance", "highway", "works", "funding", "pipeline", "electric", "telecommunications", "fiber", "project", "investment", "mass", "repair", "stormwater", "wastewater", "modernization", "resilience", "planning"};
+
+    static final Map<String, String[]> TOPIC_KEYWORDS = new LinkedHashMap<>();
+
+    static {
+        TOPIC_KEYWORDS.put("Healthcare", HEALTHCARE_KEYWORDS);
+        TOPIC_KEYWORDS.put("Education", EDUCATION_KEYWORDS);
+        TOPIC_KEYWORDS.put("Economy", ECONOMY_KEYWORDS);
+        TOPIC_KEYWORDS.put("Environment", ENVIRONMENT_KEYWORDS);
+        TOPIC_KEYWORDS.put("Immigration", IMMIGRATION_KEYWORDS);
+        TOPIC_KEYWORDS.put("Gun Control", GUN_CONTROL_KEYWORDS);
+        TOPIC_KEYWORDS.put("Civil Rights", CIVIL_RIGHTS_KEYWORDS);
+        TOPIC_KEYWORDS.put("Foreign Policy", FOREIGN_POLICY_KEYWORDS);
+        TOPIC_KEYWORDS.put("Taxes", TAXES_KEYWORDS);
+        TOPIC_KEYWORDS.put("Public Safety", PUBLIC_SAFETY_KEYWORDS);
+        TOPIC_KEYWORDS.put("Infrastructure", INFRASTRUCTURE_KEYWORDS);
+    }
+
+    private final String[] categories;
+    private final int[][] keywordCategories;
+    private final KeywordAutomaton automaton;
+
+    public BillCategorizer() {
+        categories = TOPIC_KEYWORDS.keySet().toArray(new String[0]);
+
+        // Keywords such as "public" or "law" belong to several topics, so each distinct keyword maps to all of them
+        Map<String, List<Integer>> categoriesByKeyword = new LinkedHashMap<>();
+        for (int category = 0; category < categories.length; category++) {
+            for (String keyword : TOPIC_KEYWORDS.get(categories[category])) {
+                List<Integer> owners = categoriesByKeyword.computeIfAbsent(keyword.toLowerCase(), k -> new ArrayList<>());
+                if (!owners.contains(category)) {
+                    owners.add(category);
+                }
+            }
+        }
+        List<String> keywords = new ArrayList<>(categoriesByKeyword.keySet());
+        keywordCategories = new int[keywords.size()][];
+        for (int id = 0; id < keywords.size(); id++) {
+            keywordCategories[id] = categoriesByKeyword.get(keywords.get(id)).stream().mapToInt(Integer::intValue).toArray();
+        }
+        automaton = KeywordAutomaton.compile(keywords);
+    }
+
+    public String categorize(String description) {
+        if (description == null || description.isEmpty()) return OTHER;
+
+        boolean[] seen = new boolean[keywordCategories.length];
+        int[] scores = new int[categories.length];
+        automaton.scan(description, (keywordId, start, end) -> {
+            if (seen[keywordId] || !isWordMatch(description, start, end)) {
+                return;
+            }
+            seen[keywordId] = true;
+            for (int category : keywordCategories[keywordId]) {
+                scores[category]++;
+            }
+        });
+
+        String bestCategory = OTHER;
+        int maxMatches = 0;
+        for (int category = 0; category < categories.length; category++) {
+            if (scores[category] > maxMatches) {
+                maxMatches = scores[category];
+                bestCategory = categories[category];
+            }
+        }
+        return bestCategory;
+    }
+
+    private static boolean isWordMatch(String text, int start, int end) {
+        if (start > 0 && Character.isLetterOrDigit(text.charAt(start - 1))) {
+            return false;
+        }
+        if (end < text.length() && Character.toLowerCase(text.charAt(end)) == 'e') {
+            end++;
+            if (end >= text.length() || Character.toLowerCase(text.charAt(end)) != 's') {
+                return false;
+            }
+        }
+        if (end < text.length() && Character.toLowerCase(text.charAt(end)) == 's') {
+            end++;
+        }
+        return end >= text.length() || !Character.isLetterOrDigit(text.charAt(end));
+    }
+}
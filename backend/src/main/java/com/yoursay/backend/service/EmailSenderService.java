@@ -1,47 +1,27 @@
 package com.yoursay.backend.service;
 
-import com.resend.Resend;
-import com.resend.services.emails.model.SendEmailRequest;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.MailException;
+import com.yoursay.backend.domain.OutboundEmail;
 import org.springframework.stereotype.Component;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
+import java.util.Map;
 
 
 @Component
 public class EmailSenderService {
+    private static final String VERIFICATION_TEMPLATE = "verification";
 
-    @Value("${resend.from.email}")
-    private String fromEmail;
+    private final MailDispatcher mailDispatcher;
+    private final MailTemplate verificationTemplate;
 
-    @Value("${resend.api.key}")
-    private String apiKey;
-
-    public void emailVerificationCode(String email, Integer code) {
-        try {
-            String htmlBody = loadTemplateAndReplaceCode("templates/verification_email_template.html", code);
-            Resend resend = new Resend(apiKey);
-            SendEmailRequest sendEmailRequest = SendEmailRequest.builder()
-                    .from(fromEmail)
-                    .to(email)
-                    .subject("YourSay Email Verification Code")
-                    .html(htmlBody)
-                    .build();
-            resend.emails().send(sendEmailRequest);
-        } catch (MailException | IOException e) {
-            e.printStackTrace(); // Log the error for debugging
-        }
+    public EmailSenderService(MailDispatcher mailDispatcher) {
+        this.mailDispatcher = mailDispatcher;
+        this.verificationTemplate = MailTemplate.load("templates/verification_email_template.html");
     }
 
-    private String loadTemplateAndReplaceCode(String templatePath, Integer code) throws IOException {
-        try (InputStream is = getClass().getClassLoader().getResourceAsStream(templatePath)) {
-            if (is == null) throw new IOException("Template not found: " + templatePath);
-            String template = new String(is.readAllBytes(), StandardCharsets.UTF_8);
-            String paddedCode = String.format("%06d", code);
-            return template.replace("{{CODE}}", paddedCode);
-        }
+    // Queues the email and returns without waiting for the provider; false when the mail queue is full
+    public boolean emailVerificationCode(String email, Integer code) {
+        String htmlBody = verificationTemplate.render(Map.of("CODE", String.format("%06d", code)));
+        return mailDispatcher.enqueue(
+                new OutboundEmail(email, "YourSay Email Verification Code", VERIFICATION_TEMPLATE, htmlBody));
     }
 }
@@ -1,54 +1,144 @@
 package com.yoursay.backend.service;
 
+import com.yoursay.backend.config.CacheConfig;
+import com.yoursay.backend.domain.BillLevel;
 import com.yoursay.backend.domain.Legislation;
+import com.yoursay.backend.domain.LegislationPage;
+import com.yoursay.backend.domain.LegislationSummary;
+import com.yoursay.backend.domain.User;
 import com.yoursay.backend.repository.LegislationRepository;
+import com.yoursay.backend.repository.UserRepository;
 import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Service
 public class FetchLegislationService {
+    // Sorts after every real bill_date, so the first page starts from the newest bill
+    private static final LocalDate LAST_DATE = LocalDate.of(9999, 12, 31);
 
     private final LegislationRepository legislationRepository;
+    private final UserRepository userRepository;
+    private final double preferenceWeight;
+    private final int maxRandomPerLevel;
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
-    public FetchLegislationService(LegislationRepository legislationRepository) {
+    public FetchLegislationService(LegislationRepository legislationRepository,
+                                   UserRepository userRepository,
+                                   @Value("${legislation.random.preference-weight:3.0}") double preferenceWeight,
+                                   @Value("${legislation.random.max-per-level:10}") int maxRandomPerLevel,
+                                   @Value("${legislation.page.default-size:20}") int defaultPageSize,
+                                   @Value("${legislation.page.max-size:50}") int maxPageSize) {
         this.legislationRepository = legislationRepository;
+        this.userRepository = userRepository;
+        this.preferenceWeight = preferenceWeight;
+        this.maxRandomPerLevel = maxRandomPerLevel;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    public static String cacheKey(BillLevel billLevel, String region) {
+        return billLevel + ":" + region;
     }
 
     @Transactional
+    @Cacheable(cacheNames = CacheConfig.LEGISLATION_CACHE, key = "'LOCAL:' + #zipcode")
     public List<Legislation> fetchLocalLegislation(String zipcode) {
-        return legislationRepository.findByZipcodeAndBillLevel(zipcode, "LOCAL");
+        return legislationRepository.findByZipcodeAndBillLevel(zipcode, BillLevel.LOCAL);
     }
 
     @Transactional
+    @Cacheable(cacheNames = CacheConfig.LEGISLATION_CACHE, key = "'STATE:' + #state")
     public List<Legislation> fetchStateLegislation(String state) {
-        return legislationRepository.findByStateAndBillLevel(state, "STATE");
+        return legislationRepository.findByStateAndBillLevel(state, BillLevel.STATE);
     }
 
     @Transactional
+    @Cacheable(cacheNames = CacheConfig.LEGISLATION_CACHE, key = "'FEDERAL:US'")
     public List<Legislation> fetchFederalLegislation() {
-        return legislationRepository.findByStateAndBillLevel("US", "FEDERAL");
+        return legislationRepository.findByStateAndBillLevel("US", BillLevel.FEDERAL);
     }
 
     @Transactional
-    public List<Legislation> fetchRandomLegislation(String zipcode, String state) {
-        List<Legislation> localLegislation = legislationRepository.findByZipcodeAndBillLevel(zipcode, "LOCAL");
-        List<Legislation> stateLegislation = legislationRepository.findByStateAndBillLevel(state, "STATE");
-        List<Legislation> federalLegislation = legislationRepository.findByStateAndBillLevel("US", "FEDERAL");
-        List<Legislation> combined = new ArrayList<>();
-        for (int i = 0; i < 2; i++) {
-            if (i < localLegislation.size()){
-                combined.add(localLegislation.get(i));
-            }
-            if (i < stateLegislation.size()){
-                combined.add(stateLegislation.get(i));
+    public LegislationPage fetchLegislationPage(BillLevel billLevel, String region, String category, String cursor, Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        LocalDate afterDate = LAST_DATE;
+        long afterId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] position = decodeCursor(cursor);
+            afterDate = position[0].isEmpty() ? null : LocalDate.parse(position[0]);
+            afterId = Long.parseLong(position[1]);
+        }
+
+        // Fetch one extra row to know whether another page exists without a count query
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<LegislationSummary> rows = billLevel == BillLevel.LOCAL
+                ? legislationRepository.findPageByZipcode(billLevel, region, category, afterDate, afterId, limit)
+                : legislationRepository.findPageByState(billLevel, region, category, afterDate, afterId, limit);
+
+        if (rows.size() <= pageSize) {
+            return new LegislationPage(rows, null);
+        }
+        List<LegislationSummary> items = rows.subList(0, pageSize);
+        LegislationSummary last = items.get(pageSize - 1);
+        return new LegislationPage(items, encodeCursor(last.getBillDate(), last.getId()));
+    }
+
+    private static String encodeCursor(LocalDate billDate, Long id) {
+        // An empty date means the previous page ended among the undated bills
+        String position = (billDate == null ? "" : billDate.toString()) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = position.split("\\|", 2);
+            if (!parts[0].isEmpty()) {
+                LocalDate.parse(parts[0]);
             }
-            if (i < federalLegislation.size()) {
-                combined.add(federalLegislation.get(i));
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid page cursor", e);
+        }
+    }
+
+    @Transactional
+    public List<Legislation> fetchRandomLegislation(String zipcode, String state, String email, int perLevel, Long rotation) {
+        int limit = Math.max(1, Math.min(perLevel, maxRandomPerLevel));
+        boolean rotate = rotation != null;
+        // Spread consecutive rotations across the hash range so each one surfaces a different slice of bills
+        long offset = rotate ? Math.floorMod(rotation * 0x9E3779B9L, 2147483647L) : 0L;
+        return legislationRepository.sampleFeed(zipcode, state, limit, rotate, offset,
+                preferredCategories(email), preferenceWeight);
+    }
+
+    private Set<String> preferredCategories(String email) {
+        User user = email == null ? null : userRepository.findByEmail(email);
+        Set<String> preferred = new HashSet<>();
+        if (user != null && user.getPreferences() != null) {
+            for (String preference : user.getPreferences().replaceAll("[\\[\\]\"]", "").split(",")) {
+                if (!preference.isBlank()) {
+                    preferred.add(preference.trim());
+                }
             }
         }
-        return combined;
+        // IN () is not valid SQL, so an empty preference list is padded with a value no category can have
+        if (preferred.isEmpty()) {
+            preferred.add("");
+        }
+        return preferred;
     }
 }
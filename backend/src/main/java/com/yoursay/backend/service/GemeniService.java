@@ -6,12 +6,11 @@ import com.google.genai.types.GenerateContentResponse;
 import org.springframework.stereotype.Service;
 
 @Service
-public class GemeniService {
-
-    public String fetchAiSummaryOfBill(String state, String bill_id, String title){
-        // The client gets the API key from the environment variable `GOOGLE_API_KEY`.
-        Client client = new Client();
+public class GemeniService implements SummaryModelClient {
+    private volatile Client client;
 
+    @Override
+    public String summarizeBill(String state, String bill_id, String title){
         String prompt = String.format(
                 "Provide a concise summary of the following %s bill (%s) titled '%s' in 3-5 sentences," +
                         " focusing on its main objectives and implications." +
@@ -19,11 +18,27 @@ public class GemeniService {
                 state, bill_id, title);
 
         GenerateContentResponse response =
-                client.models.generateContent(
+                client().models.generateContent(
                         "gemini-2.5-pro",
                         prompt,
                         GenerateContentConfig.builder().build());
 
         return response.text();
     }
+
+    // Built on first use rather than at startup so the app still boots without GOOGLE_API_KEY
+    private Client client() {
+        Client current = client;
+        if (current == null) {
+            synchronized (this) {
+                current = client;
+                if (current == null) {
+                    // The client gets the API key from the environment variable `GOOGLE_API_KEY`.
+                    current = new Client();
+                    client = current;
+                }
+            }
+        }
+        return current;
+    }
 }
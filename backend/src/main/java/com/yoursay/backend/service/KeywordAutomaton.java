@@ -0,0 +1,131 @@
+package com.yoursay.backend.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+// Aho-Corasick automaton over a fixed keyword list. Matching is case-insensitive and reports every keyword
+// occurrence in a single left-to-right pass over the text, independent of how many keywords there are.
+public final class KeywordAutomaton {
+    private final int[] alphabet;
+    private final int[][] transitions;
+    private final int[][] outputs;
+    private final int[] keywordLengths;
+
+    @FunctionalInterface
+    public interface MatchListener {
+        void onMatch(int keywordId, int start, int end);
+    }
+
+    private KeywordAutomaton(int[] alphabet, int[][] transitions, int[][] outputs, int[] keywordLengths) {
+        this.alphabet = alphabet;
+        this.transitions = transitions;
+        this.outputs = outputs;
+        this.keywordLengths = keywordLengths;
+    }
+
+    // Keyword ids are the indexes into the given list.
+    public static KeywordAutomaton compile(List<String> keywords) {
+        Map<Character, Integer> symbols = new HashMap<>();
+        for (String keyword : keywords) {
+            for (char c : keyword.toLowerCase().toCharArray()) {
+                symbols.putIfAbsent(c, symbols.size());
+            }
+        }
+        int maxChar = symbols.keySet().stream().mapToInt(c -> c).max().orElse(0);
+        int[] alphabet = new int[maxChar + 1];
+        Arrays.fill(alphabet, -1);
+        symbols.forEach((c, symbol) -> alphabet[c] = symbol);
+
+        // Build the trie
+        List<int[]> trie = new ArrayList<>();
+        List<List<Integer>> nodeOutputs = new ArrayList<>();
+        trie.add(newNode(symbols.size()));
+        nodeOutputs.add(new ArrayList<>());
+        int[] lengths = new int[keywords.size()];
+        for (int id = 0; id < keywords.size(); id++) {
+            String keyword = keywords.get(id).toLowerCase();
+            lengths[id] = keyword.length();
+            int node = 0;
+            for (char c : keyword.toCharArray()) {
+                int symbol = alphabet[c];
+                if (trie.get(node)[symbol] == -1) {
+                    trie.get(node)[symbol] = trie.size();
+                    trie.add(newNode(symbols.size()));
+                    nodeOutputs.add(new ArrayList<>());
+                }
+                node = trie.get(node)[symbol];
+            }
+            nodeOutputs.get(node).add(id);
+        }
+
+        // Fold failure links into a full transition table and merge suffix outputs
+        int[] failure = new int[trie.size()];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 0; symbol < symbols.size(); symbol++) {
+            int child = trie.get(0)[symbol];
+            if (child == -1) {
+                trie.get(0)[symbol] = 0;
+            } else {
+                failure[child] = 0;
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            nodeOutputs.get(node).addAll(nodeOutputs.get(failure[node]));
+            for (int symbol = 0; symbol < symbols.size(); symbol++) {
+                int child = trie.get(node)[symbol];
+                if (child == -1) {
+                    trie.get(node)[symbol] = trie.get(failure[node])[symbol];
+                } else {
+                    failure[child] = trie.get(failure[node])[symbol];
+                    queue.add(child);
+                }
+            }
+        }
+
+        int[][] outputs = new int[trie.size()][];
+        for (int node = 0; node < trie.size(); node++) {
+            outputs[node] = nodeOutputs.get(node).stream().mapToInt(Integer::intValue).toArray();
+        }
+        return new KeywordAutomaton(alphabet, trie.toArray(new int[0][]), outputs, lengths);
+    }
+
+    public void scan(CharSequence text, MatchListener listener) {
+        int node = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            int symbol = c < alphabet.length ? alphabet[c] : -1;
+            node = symbol == -1 ? 0 : transitions[node][symbol];
+            for (int keywordId : outputs[node]) {
+                listener.onMatch(keywordId, i + 1 - keywordLengths[keywordId], i + 1);
+            }
+        }
+    }
+
+    // Returns the id of the first keyword found in the text (the longest one if several end at the same
+    // position), or -1 if none occur. Stops scanning at the first match.
+    public int firstMatch(CharSequence text) {
+        int node = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            int symbol = c < alphabet.length ? alphabet[c] : -1;
+            node = symbol == -1 ? 0 : transitions[node][symbol];
+            if (outputs[node].length > 0) {
+                return outputs[node][0];
+            }
+        }
+        return -1;
+    }
+
+    private static int[] newNode(int alphabetSize) {
+        int[] node = new int[alphabetSize];
+        Arrays.fill(node, -1);
+        return node;
+    }
+}
@@ -0,0 +1,100 @@
+package com.yoursay.backend.service;
+
+import com.yoursay.backend.ratelimit.TokenBucket;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+@Slf4j
+@Component
+public class LegiScanClient {
+    private final RestClient restClient;
+    private final String baseUrl;
+    private final String apiKey;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final int requestsPerSecond;
+    private final Map<String, TokenBucket> hostLimiters = new ConcurrentHashMap<>();
+
+    public LegiScanClient(@Value("${legiscan.base.url:https://api.legiscan.com/}") String baseUrl,
+                          @Value("${legiscan.api.key}") String apiKey,
+                          @Value("${legiscan.retry.max-attempts:3}") int maxAttempts,
+                          @Value("${legiscan.retry.initial-backoff-ms:500}") long initialBackoffMs,
+                          @Value("${legiscan.rate-limit.requests-per-second:5}") int requestsPerSecond) {
+        this.restClient = RestClient.create();
+        this.baseUrl = baseUrl;
+        this.apiKey = apiKey;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.requestsPerSecond = requestsPerSecond;
+    }
+
+    // Retries only cover getting a successful response; once entries have been handed to the consumer a
+    // failure is reported to the caller instead of replaying the list.
+    public void streamMasterList(String state, Consumer<MasterListEntry> consumer) throws InterruptedException {
+        URI uri = UriComponentsBuilder.fromUriString(baseUrl)
+                .queryParam("key", apiKey)
+                .queryParam("op", "getMasterList")
+                .queryParam("state", state)
+                .build()
+                .toUri();
+
+        AtomicBoolean streaming = new AtomicBoolean(false);
+        long backoffMs = initialBackoffMs;
+        for (int attempt = 1; ; attempt++) {
+            limiterFor(uri.getHost()).acquire();
+            try {
+                restClient.get().uri(uri).exchange((request, response) -> {
+                    HttpStatusCode status = response.getStatusCode();
+                    if (status.is5xxServerError()) {
+                        throw HttpServerErrorException.create(status, response.getStatusText(), response.getHeaders(), new byte[0], null);
+                    } else if (status.isError()) {
+                        throw HttpClientErrorException.create(status, response.getStatusText(), response.getHeaders(), new byte[0], null);
+                    }
+                    streaming.set(true);
+                    MasterListParser.parse(response.getBody(), consumer);
+                    return null;
+                });
+                return;
+            } catch (RestClientException e) {
+                if (streaming.get() || attempt >= maxAttempts || !isRetryable(e)) {
+                    throw e;
+                }
+                log.warn("LegiScan request for {} failed (attempt {}/{}), retrying in {} ms: {}",
+                        state, attempt, maxAttempts, backoffMs, e.getMessage());
+                Thread.sleep(backoffMs);
+                backoffMs *= 2;
+            }
+        }
+    }
+
+    private TokenBucket limiterFor(String host) {
+        return hostLimiters.computeIfAbsent(host, h -> new TokenBucket(requestsPerSecond, requestsPerSecond));
+    }
+
+    private static boolean isRetryable(RestClientException e) {
+        if (e instanceof ResourceAccessException) {
+            return true;
+        }
+        if (e instanceof HttpStatusCodeException statusException) {
+            return statusException.getStatusCode().is5xxServerError()
+                    || statusException.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS);
+        }
+        return false;
+    }
+}
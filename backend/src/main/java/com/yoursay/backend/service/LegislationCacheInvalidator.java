@@ -0,0 +1,28 @@
+package com.yoursay.backend.service;
+
+import com.yoursay.backend.config.CacheConfig;
+import com.yoursay.backend.domain.LegislationChangedEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+public class LegislationCacheInvalidator {
+    private final CacheManager cacheManager;
+
+    public LegislationCacheInvalidator(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    // Runs after the publishing transaction commits (or immediately when there is none), so reads that start after
+    // this see the new rows. A read that started before the commit can still put the old rows back after the
+    // eviction; the expireAfterWrite in spring.cache.caffeine.spec bounds how long those are served.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLegislationChanged(LegislationChangedEvent event) {
+        Cache cache = cacheManager.getCache(CacheConfig.LEGISLATION_CACHE);
+        if (cache != null) {
+            cache.evict(FetchLegislationService.cacheKey(event.getBillLevel(), event.getRegion()));
+        }
+    }
+}
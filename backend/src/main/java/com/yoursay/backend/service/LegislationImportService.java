@@ -1,100 +1,54 @@
 package com.yoursay.backend.service;
 
+import com.yoursay.backend.domain.BillLevel;
+import com.yoursay.backend.domain.ImportReport;
 import com.yoursay.backend.domain.Legislation;
+import com.yoursay.backend.domain.LegislationChangedEvent;
 import com.yoursay.backend.domain.LocalLegislationRequest;
 import com.yoursay.backend.repository.LegislationRepository;
-import jakarta.transaction.Transactional;
-import org.json.JSONException;
-import org.json.JSONObject;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+@Slf4j
 @Service
 public class LegislationImportService {
-    @Value("${legiscan.api.key}")
-    private String apiKey;
-    private final String basePath = "https://api.legiscan.com/?key=";
-    private final String operation = "&op=getMasterList";
     final int totalBills = 25;
 
     private final LegislationRepository legislationRepository;
-
-    private List<String> excludedTitles = List.of("Day", "day", "Holiday", "holiday", "Week", "week", "Month", "month",
-            "Recognition", "recognition", "Memorial", "memorial", "Proclamation", "proclamation", "Commendation", "commendation",
-            "Congratulation", "congratulation", "Celebration", "celebration", "Remembrance", "remembrance", "Mourning", "mourning",
-            "Commending", "commending", "Congratulating", "congratulating", "Celebrating", "celebrating", "Remembering", "remembering",
-            "Commemorating", "commemorating", "Condemning", "condemning", "Condolences", "condolences", "Condolence", "condolence",
-            "Tribute", "tribute", "Welcome", "welcome", "Farewell", "Honor", "honor", "Honoring", "honoring", "Recognizing", "recognizing",
-            "Welcoming", "welcoming", "Farewell", "farewell", "Honour", "honour", "Honouring", "honouring", "Anniversary", "anniversary",
-            "Centennial", "centennial", "Centenary", "centenary", "Bicentennial", "bicentennial", "Bicentenary", "bicentenary",
-            "commemorate", "Commemorate", "commemoration", "Commemoration", "Memorializing", "memorializing", "Memorialize", "memorialize");
-
-//    private List<String> stateAbbreviations = List.of(
-//            "AL", "AK", "AZ", "AR", "CA", "CO", "CT", "DE", "FL", "GA",
-//            "HI", "ID", "IL", "IN", "IA", "KS", "KY", "LA", "ME", "MD",
-//            "MA", "MI", "MN", "MS", "MO", "MT", "NE", "NV", "NH", "NJ",
-//            "NM", "NY", "NC", "ND", "OH", "OK", "OR", "PA", "RI", "SC",
-//            "SD", "TN", "TX", "UT", "VT", "VA", "WA", "WV", "WI", "WY", "US", "DC"
-//    );
-
-    private List<String> stateAbbreviations = List.of(
-            "MI", "US"
-    );
-
-    public LegislationImportService(LegislationRepository legislationRepository) {
+    private final LegiScanClient legiScanClient;
+    private final BillCategorizer billCategorizer;
+    private final TitleExclusionFilter titleExclusionFilter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SummaryPregenerator summaryPregenerator;
+    private final List<String> stateAbbreviations;
+    private final int parallelism;
+
+    public LegislationImportService(LegislationRepository legislationRepository,
+                                    LegiScanClient legiScanClient,
+                                    BillCategorizer billCategorizer,
+                                    TitleExclusionFilter titleExclusionFilter,
+                                    ApplicationEventPublisher eventPublisher,
+                                    SummaryPregenerator summaryPregenerator,
+                                    @Value("${legiscan.import.states}") List<String> stateAbbreviations,
+                                    @Value("${legiscan.import.parallelism:4}") int parallelism) {
         this.legislationRepository = legislationRepository;
-    }
-
-    // Topic keyword arrays
-    private static final String[] HEALTHCARE_KEYWORDS = {"healthcare", "medicare", "medicaid", "insurance", "hospital", "doctor", "nurse", "pharmaceutical", "mental", "public", "medical", "prescription", "clinic", "patient", "surgery", "dental", "vision", "wellness", "primary", "specialist", "emergency", "plan", "coverage", "drug", "treatment", "diagnosis", "preventive", "telemedicine", "technology", "epidemic", "pandemic", "vaccine", "immunization", "equity", "long-term", "nursing"};
-    private static final String[] EDUCATION_KEYWORDS = {"education", "school", "student", "teacher", "university", "college", "curriculum", "classroom", "scholarship", "loan", "tuition", "literacy", "stem", "elementary", "secondary", "k-12", "public", "private", "charter", "voucher", "financial", "degree", "diploma", "testing", "assessment", "special", "textbook", "funding", "lunch", "after", "early", "preschool", "head start"};
-    private static final String[] ECONOMY_KEYWORDS = {"economy", "job", "employment", "unemployment", "gdp", "inflation", "recession", "market", "trade", "business", "industry", "wage", "income", "growth", "stimulus", "minimum", "labor", "workforce", "manufacturing", "export", "import", "tariff", "small", "entrepreneur", "investment", "stock", "banking", "finance", "credit", "debt", "consumer", "poverty", "development", "subsidy", "bailout", "fiscal", "monetary", "interest", "training"};
-    private static final String[] ENVIRONMENT_KEYWORDS = {"environment", "climate", "pollution", "emission", "carbon", "renewable", "sustainability", "conservation", "wildlife", "recycling", "green", "energy", "warming", "epa", "air", "water", "waste", "toxic", "hazardous", "solar", "wind", "geothermal", "hydroelectric", "biodiversity", "ecosystem", "deforestation", "reforestation", "ocean", "marine", "endangered", "resource", "fossil", "oil", "gas", "coal", "change", "protection", "justice"};
-    private static final String[] IMMIGRATION_KEYWORDS = {"immigration", "border", "visa", "refugee", "asylum", "citizenship", "deportation", "migrant", "daca", "undocumented", "immigrant", "naturalization", "detention", "customs", "patrol", "sanctuary", "separation", "permit", "guest", "residency"};
-    private static final String[] GUN_CONTROL_KEYWORDS = {"gun", "firearm", "weapon", "second", "nra", "shooting", "assault", "concealed", "violence", "ammunition", "law", "safety", "magazine", "registration", "license", "red", "trafficking", "show", "dealer", "control", "mass", "self-defense", "stand", "buyback"};
-    private static final String[] CIVIL_RIGHTS_KEYWORDS = {"civil", "equality", "discrimination", "racism", "sexism", "lgbtq", "voting", "freedom", "justice", "inclusion", "diversity", "human", "protection", "affirmative", "hate", "disability", "gender", "racial", "religious", "liberties", "opportunity", "anti-discrimination", "marriage", "segregation", "integration", "minority", "social", "women", "transgender"};
-    private static final String[] FOREIGN_POLICY_KEYWORDS = {"foreign", "international", "diplomacy", "treaty", "sanction", "war", "military", "defense", "alliance", "united", "embassy", "aid", "ambassador", "relations", "law", "peacekeeping", "nato", "conflict", "arms", "nuclear", "counterterrorism", "investment", "overseas", "border", "cooperation", "humanitarian", "geopolitics"};
-    private static final String[] TAXES_KEYWORDS = {"tax", "irs", "income", "corporate", "cut", "reform", "deduction", "revenue", "taxpayer", "rate", "credit", "return", "property", "sales", "excise", "capital", "shelter", "evasion", "compliance", "code", "bracket", "withholding", "policy", "incentive", "estate", "inheritance", "refund"};
-    private static final String[] PUBLIC_SAFETY_KEYWORDS = {"public", "crime", "police", "firefighter", "emergency", "disaster", "rescue", "first", "law", "safety", "security", "prevention", "ambulance", "paramedic", "911", "community", "health", "relief", "evacuation", "hazard", "threat", "risk", "order", "regulation", "fire", "traffic", "school", "domestic", "child"};
-    private static final String[] INFRASTRUCTURE_KEYWORDS = {"infrastructure", "road", "bridge", "transportation", "transit", "rail", "airport", "port", "water", "sewer", "broadband", "utility", "construction", "maintenance", "highway", "works", "funding", "pipeline", "electric", "telecommunications", "fiber", "project", "investment", "mass", "repair", "stormwater", "wastewater", "modernization", "resilience", "planning"};
-
-    private static final Map<String, String[]> TOPIC_KEYWORDS = Map.ofEntries(
-        Map.entry("Healthcare", HEALTHCARE_KEYWORDS),
-        Map.entry("Education", EDUCATION_KEYWORDS),
-        Map.entry("Economy", ECONOMY_KEYWORDS),
-        Map.entry("Environment", ENVIRONMENT_KEYWORDS),
-        Map.entry("Immigration", IMMIGRATION_KEYWORDS),
-        Map.entry("Gun Control", GUN_CONTROL_KEYWORDS),
-        Map.entry("Civil Rights", CIVIL_RIGHTS_KEYWORDS),
-        Map.entry("Foreign Policy", FOREIGN_POLICY_KEYWORDS),
-        Map.entry("Taxes", TAXES_KEYWORDS),
-        Map.entry("Public Safety", PUBLIC_SAFETY_KEYWORDS),
-        Map.entry("Infrastructure", INFRASTRUCTURE_KEYWORDS)
-    );
-
-    private String determineCategory(String description) {
-        if (description == null || description.isEmpty()) return "Other";
-        String descLower = description.toLowerCase();
-        String bestCategory = "Other";
-        int maxMatches = 0;
-        for (Map.Entry<String, String[]> entry : TOPIC_KEYWORDS.entrySet()) {
-            int matches = 0;
-            for (String keyword : entry.getValue()) {
-                if (descLower.contains(keyword.toLowerCase())) {
-                    matches++;
-                }
-            }
-            if (matches > maxMatches) {
-                maxMatches = matches;
-                bestCategory = entry.getKey();
-            }
-        }
-        return bestCategory;
+        this.legiScanClient = legiScanClient;
+        this.billCategorizer = billCategorizer;
+        this.titleExclusionFilter = titleExclusionFilter;
+        this.eventPublisher = eventPublisher;
+        this.summaryPregenerator = summaryPregenerator;
+        this.stateAbbreviations = stateAbbreviations;
+        this.parallelism = parallelism;
     }
 
     public boolean addLocalLegislation(LocalLegislationRequest legislationRequest) {
@@ -102,101 +56,109 @@ public class LegislationImportService {
         legislation.setBill_id(null);
         legislation.setTitle(legislationRequest.getTitle());
         legislation.setDescription(legislationRequest.getDescription());
-        legislation.setBillLevel("LOCAL");
+        legislation.setBillLevel(BillLevel.LOCAL);
         legislation.setState(legislationRequest.getState());
         legislation.setCity(legislationRequest.getCity());
         legislation.setZipcode(legislationRequest.getZipcode());
-        String currentDate = LocalDate.now().format(DateTimeFormatter.ISO_LOCAL_DATE);
-        legislation.setBillDate(currentDate);
-        legislation.setCategory(determineCategory(legislationRequest.getDescription()));
+        legislation.setBillDate(LocalDate.now());
+        legislation.setCategory(billCategorizer.categorize(legislationRequest.getDescription()));
         try {
             legislationRepository.save(legislation);
+            eventPublisher.publishEvent(new LegislationChangedEvent(BillLevel.LOCAL, legislation.getZipcode(), List.of()));
             return true;
         } catch (Exception e) {
             return false;
         }
     }
 
-    @Transactional
-    public void fetchMasterList() {
-        List<Integer> existingBillIds = new ArrayList<>();
-        legislationRepository.deleteAllLegislation();
-
-        for (String state : stateAbbreviations) {
-            RestTemplate restTemplate = new RestTemplate();
-            String LEGISCAN_URL = basePath + apiKey + operation + "&state=" + state;
-            String response = restTemplate.getForObject(LEGISCAN_URL, String.class);
+    public ImportReport fetchMasterList() {
+        long startedAt = System.currentTimeMillis();
+        ImportReport report = new ImportReport();
+        Set<Integer> existingBillIds = ConcurrentHashMap.newKeySet();
+        titleExclusionFilter.reloadIfChanged();
 
-            final JSONObject obj = new JSONObject(response);
-            final JSONObject geodata = obj.getJSONObject("masterlist");
-
-            int index = getLastIndex(geodata);
-
-            int total = 0;
-            for (; total < totalBills || index < 0; index-=1) {
-                try {
-                    final JSONObject data = geodata.getJSONObject(Integer.toString(index));
-                    String title = data.get("title").toString();
-
-                    if (checkTitleExclusion(title)) {
-                        continue;
-                    }
-
-                    Legislation legislation = buildLegislation(data, title, state);
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<CompletableFuture<Void>> tasks = new ArrayList<>();
+            for (String state : stateAbbreviations) {
+                tasks.add(CompletableFuture.runAsync(() -> importState(state, existingBillIds, report), executor));
+            }
+            CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).join();
+        } finally {
+            executor.shutdown();
+        }
 
-                    if (existingBillIds.contains(legislation.getBill_id())) {
-                        continue;
-                    }
+        report.finish(System.currentTimeMillis() - startedAt);
+        log.info("Legislation import finished in {} ms: {} states succeeded, {} failed",
+                report.getDurationMs(), report.getSucceeded(), report.getFailed());
+        return report;
+    }
 
-                    legislationRepository.save(legislation);
+    private void importState(String state, Set<Integer> existingBillIds, ImportReport report) {
+        try {
+            // Master lists are ordered oldest first, so keep a sliding window of the newest eligible entries
+            Deque<MasterListEntry> window = new ArrayDeque<>(totalBills);
+            legiScanClient.streamMasterList(state, entry -> {
+                if (titleExclusionFilter.isExcluded(entry.title())) {
+                    return;
+                }
+                if (window.size() == totalBills) {
+                    window.removeFirst();
+                }
+                window.addLast(entry);
+            });
 
-                    existingBillIds.add(legislation.getBill_id());
+            if (window.isEmpty()) {
+                log.warn("Master list for {} had no eligible bills, keeping its existing rows", state);
+            }
 
-                    total++;
-                } catch (Exception e) {
-                    System.out.println("Exception "+e.getMessage());
+            List<Legislation> bills = new ArrayList<>(window.size());
+            for (Iterator<MasterListEntry> newestFirst = window.descendingIterator(); newestFirst.hasNext(); ) {
+                MasterListEntry entry = newestFirst.next();
+                if (existingBillIds.add(entry.billId())) {
+                    bills.add(buildLegislation(entry, state));
                 }
             }
-        }
-    }
 
-    private boolean checkTitleExclusion(String title) {
-        for (String excludedTitle : excludedTitles) {
-            if (title.contains(excludedTitle)) {
-                return true;
-            }
+            // Only new or changed bills are written; rows whose change_hash is unchanged are left alone
+            List<Integer> written = legislationRepository.syncImportedState(state, bills);
+            eventPublisher.publishEvent(new LegislationChangedEvent(billLevelFor(state), state, written));
+            // Stale summaries were dropped by the event above; queue fresh ones for the written bills
+            Set<Integer> writtenIds = new HashSet<>(written);
+            summaryPregenerator.enqueue(bills.stream().filter(bill -> writtenIds.contains(bill.getBill_id())).toList());
+            report.recordSuccess(state, bills.size(), written.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            report.recordFailure(state, e);
+        } catch (Exception e) {
+            log.error("Legislation import failed for {}", state, e);
+            report.recordFailure(state, e);
         }
-        return false;
     }
 
-    private static Legislation buildLegislation(JSONObject data, String title, String state) {
+    private Legislation buildLegislation(MasterListEntry entry, String state) {
         Legislation legislation = new Legislation();
-        legislation.setBill_id(data.getInt("bill_id"));
-        legislation.setTitle(title);
-        legislation.setDescription(data.getString("description"));
-        if (state.equals("US")) {
-            legislation.setBillLevel("FEDERAL");
-        } else {
-            legislation.setBillLevel("STATE");
-        }
+        legislation.setBill_id(entry.billId());
+        legislation.setTitle(entry.title());
+        legislation.setDescription(entry.description());
+        legislation.setBillLevel(billLevelFor(state));
         legislation.setState(state);
-        legislation.setBillDate(data.getString("status_date"));
+        legislation.setBillDate(parseDate(entry.statusDate()));
+        legislation.setChangeHash(entry.changeHash());
         // Set category based on description
-        String description = data.getString("description");
-        legislation.setCategory(new LegislationImportService(null).determineCategory(description));
+        legislation.setCategory(billCategorizer.categorize(entry.description()));
         return legislation;
     }
 
-    private static int getLastIndex(JSONObject geodata) {
-        int index;
-        for (int i = 0; true; i++) {
-            try {
-                geodata.getJSONObject(Integer.toString(i));
-            } catch (JSONException e) {
-                index = i - 1;
-                break;
-            }
+    private static BillLevel billLevelFor(String state) {
+        return state.equals("US") ? BillLevel.FEDERAL : BillLevel.STATE;
+    }
+
+    private static LocalDate parseDate(String date) {
+        try {
+            return date == null || date.isBlank() ? null : LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            return null;
         }
-        return index;
     }
 }
@@ -0,0 +1,17 @@
+package com.yoursay.backend.service;
+
+import com.yoursay.backend.domain.OutboundEmail;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// Local stand-in for the mail provider: nothing leaves the machine, the email is only logged
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "mail.provider", havingValue = "log")
+public class LoggingMailProvider implements MailProvider {
+    @Override
+    public void send(OutboundEmail email) {
+        log.info("Email to {}: {}", email.getTo(), email.getSubject());
+    }
+}
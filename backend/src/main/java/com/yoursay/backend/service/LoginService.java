@@ -4,37 +4,61 @@ import com.yoursay.backend.domain.LoginResponse;
 import com.yoursay.backend.domain.User;
 import com.yoursay.backend.repository.UserRepository;
 import com.yoursay.backend.security.JwtUtil;
+import com.yoursay.backend.security.PasswordHasher;
+import com.yoursay.backend.security.RefreshTokenStore;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 @Service
 
 public class LoginService {
     private final UserRepository userRepository;
+    private final PasswordHasher passwordHasher;
+    private final RefreshTokenStore refreshTokenStore;
+    private final Executor ioExecutor;
 
     @Autowired
     private JwtUtil jwtUtil;
 
     @Autowired
-    public LoginService(UserRepository userRepository) {
+    public LoginService(UserRepository userRepository, PasswordHasher passwordHasher, RefreshTokenStore refreshTokenStore,
+                        @Qualifier("applicationTaskExecutor") Executor ioExecutor) {
         this.userRepository = userRepository;
+        this.passwordHasher = passwordHasher;
+        this.refreshTokenStore = refreshTokenStore;
+        this.ioExecutor = ioExecutor;
     }
 
-    public LoginResponse checkPassword(String email, String password) {
+    // The user is loaded on the calling thread and only the password check runs on the hashing pool; the writes that
+    // follow it run on the task executor so hashing threads never wait on the database.
+    // Throws RejectedExecutionException when the hashing pool is saturated
+    public CompletableFuture<LoginResponse> checkPassword(String email, String password) {
         User user = userRepository.findByEmail(email);
-        LoginResponse response = new LoginResponse();
-        if (user != null && user.getPassword().equals(password)) {
+        String stored = user == null ? null : user.getPassword();
+        return passwordHasher.verify(password, stored).thenApplyAsync(check -> {
+            LoginResponse response = new LoginResponse();
+            if (!check.matches()) {
+                return response;
+            }
+            if (check.upgradedHash() != null) {
+                // Legacy plaintext row: replace it with the hash, unless the password changed meanwhile
+                userRepository.updatePasswordIfUnchanged(user.getEmail(), stored, check.upgradedHash());
+            }
             response.setEmail(user.getEmail());
             response.setZipcode(user.getZipcode());
             response.setState(user.getState());
-            // Generate JWT tokens
+            // Short-lived JWT for API calls, opaque rotating token to renew it
             String accessToken = jwtUtil.generateToken(user.getEmail());
-            String refreshToken = jwtUtil.generateToken(user.getEmail()); // For demo, same as access, but should have longer expiry
+            String refreshToken = refreshTokenStore.issue(user.getEmail());
             response.setAccessToken(accessToken);
             response.setRefreshToken(refreshToken);
             response.setPreferences(user.getPreferences());
             response.setAccessGranted(true);
-        }
-        return response;
+            return response;
+        }, ioExecutor);
     }
 }
@@ -0,0 +1,130 @@
+package com.yoursay.backend.service;
+
+import com.yoursay.backend.domain.MailDeadLetter;
+import com.yoursay.backend.domain.OutboundEmail;
+import com.yoursay.backend.repository.MailDeadLetterRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Outbound mail queue. Callers hand over an email and return at once; a small pool delivers it through the
+// MailProvider, retrying failures with jittered exponential backoff. An email that fails every attempt is written
+// to mail_dead_letter by recipient and template; the rendered body, which may hold a verification code, is not kept.
+// At most mail.queue.capacity emails, counting those waiting for a retry, are held at a time.
+@Slf4j
+@Component
+public class MailDispatcher {
+    private static final long MAX_BACKOFF_MS = 60_000;
+
+    private final MailProvider mailProvider;
+    private final MailDeadLetterRepository mailDeadLetterRepository;
+    private final int capacity;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final ScheduledThreadPoolExecutor executor;
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter deadLettered;
+    private final Counter rejected;
+
+    public MailDispatcher(MailProvider mailProvider,
+                          MailDeadLetterRepository mailDeadLetterRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${mail.dispatch.concurrency:2}") int concurrency,
+                          @Value("${mail.queue.capacity:1000}") int capacity,
+                          @Value("${mail.retry.max-attempts:5}") int maxAttempts,
+                          @Value("${mail.retry.initial-backoff-ms:1000}") long initialBackoffMs) {
+        this.mailProvider = mailProvider;
+        this.mailDeadLetterRepository = mailDeadLetterRepository;
+        this.capacity = capacity;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.sent = Counter.builder("mail.sent").register(meterRegistry);
+        this.retried = Counter.builder("mail.retried").register(meterRegistry);
+        this.deadLettered = Counter.builder("mail.dead_lettered").register(meterRegistry);
+        this.rejected = Counter.builder("mail.rejected").register(meterRegistry);
+        Gauge.builder("mail.pending", pending, AtomicInteger::get).register(meterRegistry);
+
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ScheduledThreadPoolExecutor(concurrency, r -> {
+            Thread thread = new Thread(r, "mail-dispatch-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // False when the queue is full and the email was not accepted
+    public boolean enqueue(OutboundEmail email) {
+        if (pending.incrementAndGet() > capacity) {
+            pending.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+        executor.execute(() -> attempt(email, 1));
+        return true;
+    }
+
+    public int pending() {
+        return pending.get();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+            log.warn("Shut down with {} emails still queued", pending.get());
+        }
+    }
+
+    private void attempt(OutboundEmail email, int attempt) {
+        try {
+            mailProvider.send(email);
+            sent.increment();
+            pending.decrementAndGet();
+        } catch (RuntimeException e) {
+            if (attempt >= maxAttempts) {
+                deadLetter(email, attempt, e);
+                pending.decrementAndGet();
+                return;
+            }
+            retried.increment();
+            long delay = backoff(attempt);
+            log.warn("Email to {} failed on attempt {}, retrying in {} ms: {}", email.getTo(), attempt, delay, e.getMessage());
+            executor.schedule(() -> attempt(email, attempt + 1), delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private long backoff(int attempt) {
+        long base = Math.min(MAX_BACKOFF_MS, initialBackoffMs << Math.min(attempt - 1, 20));
+        // Up to 20% jitter so a provider outage is not followed by every retry landing at once
+        return base + ThreadLocalRandom.current().nextLong(base / 5 + 1);
+    }
+
+    private void deadLetter(OutboundEmail email, int attempts, RuntimeException error) {
+        deadLettered.increment();
+        log.error("Email to {} failed {} times, moving it to the dead letter table: {}", email.getTo(), attempts, error.getMessage());
+        try {
+            MailDeadLetter row = new MailDeadLetter();
+            row.setRecipient(email.getTo());
+            row.setSubject(email.getSubject());
+            row.setTemplate(email.getTemplate());
+            row.setAttempts(attempts);
+            row.setLastError(error.getMessage());
+            mailDeadLetterRepository.save(row);
+        } catch (RuntimeException e) {
+            log.error("Could not record the dead letter for {}: {}", email.getTo(), e.getMessage());
+        }
+    }
+}
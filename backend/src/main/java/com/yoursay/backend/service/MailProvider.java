@@ -0,0 +1,9 @@
+package com.yoursay.backend.service;
+
+import com.yoursay.backend.domain.OutboundEmail;
+
+// Delivers one email or throws. ResendMailProvider is the production implementation; mail.provider=log swaps in
+// LoggingMailProvider for local runs and tests.
+public interface MailProvider {
+    void send(OutboundEmail email);
+}
@@ -0,0 +1,59 @@
+package com.yoursay.backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// An email template read and split into literal text and {{NAME}} placeholders once; rendering only appends
+public final class MailTemplate {
+    private final List<String> literals;
+    private final List<String> placeholders;
+    private final int literalLength;
+
+    private MailTemplate(List<String> literals, List<String> placeholders) {
+        this.literals = literals;
+        this.placeholders = placeholders;
+        this.literalLength = literals.stream().mapToInt(String::length).sum();
+    }
+
+    public static MailTemplate load(String classpathLocation) {
+        try (InputStream is = MailTemplate.class.getClassLoader().getResourceAsStream(classpathLocation)) {
+            if (is == null) {
+                throw new IllegalStateException("Template not found: " + classpathLocation);
+            }
+            return compile(new String(is.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static MailTemplate compile(String template) {
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        int from = 0;
+        while (true) {
+            int open = template.indexOf("{{", from);
+            int close = open < 0 ? -1 : template.indexOf("}}", open + 2);
+            if (close < 0) {
+                literals.add(template.substring(from));
+                return new MailTemplate(literals, placeholders);
+            }
+            literals.add(template.substring(from, open));
+            placeholders.add(template.substring(open + 2, close).trim());
+            from = close + 2;
+        }
+    }
+
+    // Placeholders without a value render as empty
+    public String render(Map<String, String> values) {
+        StringBuilder out = new StringBuilder(literalLength + 16 * placeholders.size());
+        for (int i = 0; i < placeholders.size(); i++) {
+            out.append(literals.get(i)).append(values.getOrDefault(placeholders.get(i), ""));
+        }
+        return out.append(literals.get(literals.size() - 1)).toString();
+    }
+}
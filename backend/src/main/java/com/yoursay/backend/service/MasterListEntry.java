@@ -0,0 +1,4 @@
+package com.yoursay.backend.service;
+
+public record MasterListEntry(int billId, String title, String description, String statusDate, String changeHash) {
+}
@@ -0,0 +1,80 @@
+package com.yoursay.backend.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+// Streams a LegiScan getMasterList response entry by entry so a state's master list is never held in memory.
+final class MasterListParser {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private MasterListParser() {
+    }
+
+    static void parse(InputStream body, Consumer<MasterListEntry> consumer) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (field.equals("status") && !"OK".equals(parser.getValueAsString())) {
+                    throw new IOException("LegiScan returned status " + parser.getValueAsString());
+                } else if (field.equals("masterlist") && value == JsonToken.START_OBJECT) {
+                    parseMasterList(parser, consumer);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    private static void parseMasterList(JsonParser parser, Consumer<MasterListEntry> consumer) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String key = parser.currentName();
+            JsonToken value = parser.nextToken();
+            // Bills are keyed "0", "1", ...; the "session" block is the only other member
+            if (value != JsonToken.START_OBJECT || key.isEmpty() || !Character.isDigit(key.charAt(0))) {
+                parser.skipChildren();
+                continue;
+            }
+            MasterListEntry entry = parseEntry(parser);
+            if (entry != null) {
+                consumer.accept(entry);
+            }
+        }
+    }
+
+    private static MasterListEntry parseEntry(JsonParser parser) throws IOException {
+        Integer billId = null;
+        String title = null;
+        String description = null;
+        String statusDate = null;
+        String changeHash = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "bill_id" -> billId = parser.getValueAsInt();
+                case "title" -> title = parser.getValueAsString();
+                case "description" -> description = parser.getValueAsString();
+                case "status_date" -> statusDate = parser.getValueAsString();
+                case "change_hash" -> changeHash = parser.getValueAsString();
+                default -> parser.skipChildren();
+            }
+        }
+        if (billId == null || title == null) {
+            return null;
+        }
+        return new MasterListEntry(billId, title, description, statusDate, changeHash);
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new IOException("Unexpected master list token " + actual + ", expected " + expected);
+        }
+    }
+}
@@ -6,51 +6,118 @@ import com.yoursay.backend.repository.VotingRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 
 @Service
 public class OpinionVoteService {
     private final VotingRepository votingRepository;
     private final OpinionsRepository opinionsRepository;
+    private final VoteWriteBuffer voteWriteBuffer;
+    private final VoteTallyService voteTallyService;
 
-    public OpinionVoteService(VotingRepository votingRepository, OpinionsRepository opinionsRepository) {
+    public OpinionVoteService(VotingRepository votingRepository, OpinionsRepository opinionsRepository,
+                              VoteWriteBuffer voteWriteBuffer, VoteTallyService voteTallyService) {
         this.votingRepository = votingRepository;
         this.opinionsRepository = opinionsRepository;
+        this.voteWriteBuffer = voteWriteBuffer;
+        this.voteTallyService = voteTallyService;
     }
 
     public boolean addOpinionFromRequest(OpinionRequest opinionRequest) {
         try {
-            opinionsRepository.deleteByEmailAndBillId(opinionRequest.getEmail(), opinionRequest.getBill_id());
-            Opinion opinion = new Opinion();
-            opinion.setEmail(opinionRequest.getEmail());
-            opinion.setOpinion(opinionRequest.getOpinion());
-            opinion.setBill_id(opinionRequest.getBill_id());
-            opinionsRepository.save(opinion);
+            opinionsRepository.upsert(opinionRequest.getEmail(), opinionRequest.getBill_id(), opinionRequest.getOpinion());
             return true;
         } catch (Exception e) {
             return false;
         }
     }
 
+    // Throws RejectedExecutionException when the vote buffer is full and cannot be flushed
     public boolean addVoteFromRequest(VoteRequest voteRequest) {
+        if (voteWriteBuffer.isEnabled()) {
+            if (!voteWriteBuffer.offer(voteRequest)) {
+                throw new RejectedExecutionException("Vote buffer is full");
+            }
+            return true;
+        }
         try{
-            votingRepository.deleteByEmailAndBillId(voteRequest.getEmail(), voteRequest.getBill_id());
-            Vote vote = new Vote();
-            vote.setEmail(voteRequest.getEmail());
-            vote.setVote(voteRequest.getVote());
-            vote.setBill_id(voteRequest.getBill_id());
-            votingRepository.save(vote);
+            voteTallyService.recordVote(voteRequest.getEmail(), voteRequest.getBill_id(), voteRequest.getVote());
             return true;
         } catch (Exception e) {
             return false;
         }
     }
 
+    public List<VoteTally> getTallies(List<Integer> billIds) {
+        return voteTallyService.getTallies(billIds);
+    }
+
+    // One query against voting for the caller's votes and one against opinions for counts and the caller's
+    // opinion; vote totals come from the in-memory tallies
+    public List<BillEngagement> getEngagement(String email, List<Integer> billIds) {
+        Set<Integer> ids = new LinkedHashSet<>(billIds);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Integer, Boolean> myVotes = new HashMap<>();
+        for (Vote vote : votingRepository.findByEmailAndBillIds(email, ids)) {
+            myVotes.put(vote.getBill_id(), vote.isVote());
+        }
+        if (voteWriteBuffer.isEnabled()) {
+            myVotes.putAll(voteWriteBuffer.pendingFor(email));
+        }
+        Map<Integer, OpinionsRepository.BillOpinionRow> opinions = new HashMap<>();
+        for (OpinionsRepository.BillOpinionRow row : opinionsRepository.summarizeBills(email, ids)) {
+            opinions.put(row.getBillId(), row);
+        }
+
+        List<BillEngagement> engagement = new ArrayList<>(ids.size());
+        for (Integer billId : ids) {
+            VoteTally tally = voteTallyService.getTally(billId);
+            OpinionsRepository.BillOpinionRow opinion = opinions.get(billId);
+            engagement.add(new BillEngagement(billId, tally.getYes(), tally.getNo(),
+                    opinion == null ? 0 : opinion.getOpinionCount(),
+                    myVotes.get(billId),
+                    opinion == null ? null : opinion.getCallerOpinion()));
+        }
+        return engagement;
+    }
+
     public List<Opinion> getOpinions(String email) {
         return opinionsRepository.findByEmail(email);
     }
 
     public List<Vote> getVotes(String email) {
-        return votingRepository.findByEmail(email);
+        List<Vote> votes = votingRepository.findByEmail(email);
+        if (!voteWriteBuffer.isEnabled()) {
+            return votes;
+        }
+        // Overlay votes that are still waiting in the write-behind buffer so users see their own writes
+        Map<Integer, Boolean> pending = voteWriteBuffer.pendingFor(email);
+        if (pending.isEmpty()) {
+            return votes;
+        }
+        List<Vote> merged = new ArrayList<>();
+        for (Vote vote : votes) {
+            if (pending.containsKey(vote.getBill_id())) {
+                vote.setVote(Boolean.TRUE.equals(pending.remove(vote.getBill_id())));
+            }
+            merged.add(vote);
+        }
+        pending.forEach((billId, value) -> {
+            Vote vote = new Vote();
+            vote.setEmail(email);
+            vote.setBill_id(billId);
+            vote.setVote(Boolean.TRUE.equals(value));
+            merged.add(vote);
+        });
+        return merged;
     }
 }
@@ -1,11 +1,13 @@
 package com.yoursay.backend.service;
 
+import com.yoursay.backend.config.CacheConfig;
 import com.yoursay.backend.domain.User;
 import com.yoursay.backend.domain.UserRequest;
 import com.yoursay.backend.domain.Verification;
 import com.yoursay.backend.repository.UserRepository;
 import com.yoursay.backend.repository.VerificationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,6 +21,7 @@ public class PreferencesService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USER_PROFILE_CACHE, key = "#email")
     public boolean updateUser(String email, String zipcode, String preferences) {
         try{
             if (preferences != null) {
@@ -0,0 +1,36 @@
+package com.yoursay.backend.service;
+
+import com.resend.Resend;
+import com.resend.services.emails.model.SendEmailRequest;
+import com.yoursay.backend.domain.OutboundEmail;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "mail.provider", havingValue = "resend", matchIfMissing = true)
+public class ResendMailProvider implements MailProvider {
+    private final String fromEmail;
+    private final Resend resend;
+
+    public ResendMailProvider(@Value("${resend.from.email}") String fromEmail,
+                              @Value("${resend.api.key}") String apiKey) {
+        this.fromEmail = fromEmail;
+        this.resend = new Resend(apiKey);
+    }
+
+    @Override
+    public void send(OutboundEmail email) {
+        SendEmailRequest request = SendEmailRequest.builder()
+                .from(fromEmail)
+                .to(email.getTo())
+                .subject(email.getSubject())
+                .html(email.getHtml())
+                .build();
+        try {
+            resend.emails().send(request);
+        } catch (Exception e) {
+            throw new IllegalStateException("Resend rejected the email: " + e.getMessage(), e);
+        }
+    }
+}
@@ -2,45 +2,41 @@ package com.yoursay.backend.service;
 
 import com.yoursay.backend.domain.User;
 import com.yoursay.backend.domain.UserRequest;
-import com.yoursay.backend.domain.Verification;
 import com.yoursay.backend.repository.UserRepository;
-import com.yoursay.backend.repository.VerificationRepository;
+import com.yoursay.backend.security.PasswordHasher;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Service
 public class SignUpService {
     private final UserRepository userRepository;
-    private final VerificationRepository verificationRepository;
+    private final PasswordHasher passwordHasher;
+    private final Executor ioExecutor;
 
     @Autowired
-    public SignUpService(UserRepository userRepository, VerificationRepository verificationRepository) {
-        this.verificationRepository = verificationRepository;
+    public SignUpService(UserRepository userRepository, PasswordHasher passwordHasher,
+                         @Qualifier("applicationTaskExecutor") Executor ioExecutor) {
         this.userRepository = userRepository;
+        this.passwordHasher = passwordHasher;
+        this.ioExecutor = ioExecutor;
     }
 
-    public void addUserFromRequest(UserRequest userRequest) {
-        User user = new User();
-        user.setEmail(userRequest.getEmail());
-        user.setPassword(userRequest.getPassword());
-        user.setZipcode(userRequest.getZipcode());
-        user.setState(userRequest.getState());
-        user.setPreferences(userRequest.getPreferences());
-        userRepository.save(user);
-    }
-
-    @Transactional
-    public void addVerificationCode(String email, Integer code) {
-        verificationRepository.deleteByEmail(email);
-        Verification verification = new Verification();
-        verification.setCode(code);
-        verification.setEmail(email);
-        verificationRepository.save(verification);
-    }
-
-    public boolean checkVerificationCode(String email, Integer code) {
-        Verification verification = verificationRepository.findByEmail(email);
-        return verification != null && verification.getCode().equals(code);
+    // Hashes on the password pool and saves the user on the task executor, so no request thread waits on bcrypt
+    // and no hashing thread waits on the database.
+    // Throws RejectedExecutionException when the hashing pool is saturated.
+    public CompletableFuture<Void> addUserFromRequest(UserRequest userRequest) {
+        return passwordHasher.hash(userRequest.getPassword()).thenAcceptAsync(hash -> {
+            User user = new User();
+            user.setEmail(userRequest.getEmail());
+            user.setPassword(hash);
+            user.setZipcode(userRequest.getZipcode());
+            user.setState(userRequest.getState());
+            user.setPreferences(userRequest.getPreferences());
+            userRepository.save(user);
+        }, ioExecutor);
     }
 }
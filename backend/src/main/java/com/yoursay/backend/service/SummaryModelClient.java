@@ -0,0 +1,6 @@
+package com.yoursay.backend.service;
+
+// The model behind bill summaries. GemeniService is the production implementation; tests plug in a local fake.
+public interface SummaryModelClient {
+    String summarizeBill(String state, String bill_id, String title);
+}
@@ -0,0 +1,93 @@
+package com.yoursay.backend.service;
+
+import com.yoursay.backend.domain.Legislation;
+import com.yoursay.backend.ratelimit.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Background stage of the import: summarizes new and changed bills before anyone asks, so /legislation/ai is
+// normally a cache or table lookup. Jobs run on a bounded pool and are paced by a token bucket in front of the
+// model. When the queue is full jobs are dropped and those bills are summarized on first request instead.
+@Slf4j
+@Component
+public class SummaryPregenerator {
+    private final AiSummaryService aiSummaryService;
+    private final boolean enabled;
+    private final TokenBucket modelRateLimiter;
+    private final ThreadPoolExecutor executor;
+
+    private final Counter generated;
+    private final Counter dropped;
+    private final Counter failed;
+
+    public SummaryPregenerator(AiSummaryService aiSummaryService,
+                               MeterRegistry meterRegistry,
+                               @Value("${ai.summary.pregenerate.enabled:true}") boolean enabled,
+                               @Value("${ai.summary.pregenerate.concurrency:2}") int concurrency,
+                               @Value("${ai.summary.pregenerate.queue-capacity:1000}") int queueCapacity,
+                               @Value("${ai.summary.pregenerate.requests-per-minute:30}") double requestsPerMinute) {
+        this.aiSummaryService = aiSummaryService;
+        this.enabled = enabled;
+        this.modelRateLimiter = new TokenBucket(1, requestsPerMinute / 60.0);
+        this.generated = Counter.builder("ai.summary.pregenerate").tag("result", "generated").register(meterRegistry);
+        this.dropped = Counter.builder("ai.summary.pregenerate").tag("result", "dropped").register(meterRegistry);
+        this.failed = Counter.builder("ai.summary.pregenerate").tag("result", "failed").register(meterRegistry);
+
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "summary-pregenerate-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (job, pool) -> dropped.increment());
+    }
+
+    public void enqueue(Collection<Legislation> bills) {
+        if (!enabled) {
+            return;
+        }
+        for (Legislation bill : bills) {
+            if (bill.getBill_id() == null) {
+                continue;
+            }
+            String billId = String.valueOf(bill.getBill_id());
+            executor.execute(() -> summarize(bill.getState(), billId, bill.getTitle()));
+        }
+    }
+
+    public int pending() {
+        return executor.getQueue().size() + executor.getActiveCount();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void summarize(String state, String billId, String title) {
+        try {
+            modelRateLimiter.acquire();
+            // Goes through the shared cache, so a reader asking for the same bill meanwhile waits on this call
+            if (aiSummaryService.summarize(state, billId, title).join() != null) {
+                generated.increment();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.warn("Pre-generating the summary of {} bill {} failed: {}", state, billId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.yoursay.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+// Rejects ceremonial bills (days, memorials, congratulations, ...) by title. Terms are matched as
+// case-insensitive substrings in a single pass. The vocabulary comes from legislation.import.excluded-titles
+// plus an optional file (one term per line) that is re-read before each import when it changes.
+@Slf4j
+@Component
+public class TitleExclusionFilter {
+    private final List<String> configuredTerms;
+    private final Path termsFile;
+    private final MeterRegistry meterRegistry;
+
+    private volatile Vocabulary vocabulary;
+    private volatile FileTime termsFileModified;
+
+    private record Vocabulary(KeywordAutomaton automaton, Counter[] rejected) {
+    }
+
+    public TitleExclusionFilter(@Value("${legislation.import.excluded-titles}") List<String> configuredTerms,
+                                @Value("${legislation.import.excluded-titles-file:}") String termsFile,
+                                MeterRegistry meterRegistry) {
+        this.configuredTerms = configuredTerms;
+        this.termsFile = termsFile.isBlank() ? null : Path.of(termsFile);
+        this.meterRegistry = meterRegistry;
+        reloadIfChanged();
+    }
+
+    public boolean isExcluded(String title) {
+        Vocabulary current = vocabulary;
+        int term = current.automaton().firstMatch(title);
+        if (term < 0) {
+            return false;
+        }
+        current.rejected()[term].increment();
+        return true;
+    }
+
+    public synchronized void reloadIfChanged() {
+        FileTime modified = null;
+        if (termsFile != null) {
+            try {
+                modified = Files.getLastModifiedTime(termsFile);
+            } catch (IOException e) {
+                log.warn("Could not read title exclusion file {}: {}", termsFile, e.getMessage());
+            }
+        }
+        if (vocabulary != null && Objects.equals(modified, termsFileModified)) {
+            return;
+        }
+
+        Set<String> terms = new LinkedHashSet<>();
+        for (String term : configuredTerms) {
+            addTerm(terms, term);
+        }
+        if (modified != null) {
+            try {
+                for (String line : Files.readAllLines(termsFile)) {
+                    if (!line.startsWith("#")) {
+                        addTerm(terms, line);
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("Could not read title exclusion file {}: {}", termsFile, e.getMessage());
+            }
+        }
+        termsFileModified = modified;
+
+        List<String> termList = List.copyOf(terms);
+        Counter[] rejected = new Counter[termList.size()];
+        for (int i = 0; i < termList.size(); i++) {
+            rejected[i] = Counter.builder("legislation.import.titles.excluded")
+                    .description("Master list titles rejected by each exclusion term")
+                    .tag("term", termList.get(i))
+                    .register(meterRegistry);
+        }
+        vocabulary = new Vocabulary(KeywordAutomaton.compile(termList), rejected);
+        log.info("Loaded {} title exclusion terms", termList.size());
+    }
+
+    private static void addTerm(Set<String> terms, String term) {
+        String normalized = term.trim().toLowerCase();
+        if (!normalized.isEmpty()) {
+            terms.add(normalized);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.yoursay.backend.service;
+
+import com.yoursay.backend.config.CacheConfig;
+import com.yoursay.backend.domain.User;
+import com.yoursay.backend.domain.UserProfile;
+import com.yoursay.backend.repository.UserRepository;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+@Service
+public class UserProfileService {
+    private final UserRepository userRepository;
+
+    public UserProfileService(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    // Evicted by PreferencesService.updateUser
+    @Cacheable(cacheNames = CacheConfig.USER_PROFILE_CACHE, key = "#email", unless = "#result == null")
+    public UserProfile getProfile(String email) {
+        User user = userRepository.findByEmail(email);
+        if (user == null) {
+            return null;
+        }
+        return new UserProfile(user.getEmail(), user.getZipcode(), user.getState(), user.getPreferences());
+    }
+}
@@ -0,0 +1,200 @@
+package com.yoursay.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.yoursay.backend.domain.Verification;
+import com.yoursay.backend.ratelimit.TokenBucket;
+import com.yoursay.backend.repository.VerificationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Sign-up verification codes. Codes live in memory for verification.code.ttl-seconds and are dropped after
+// max-attempts wrong guesses. Sends are limited per email and per client IP, checks per client IP, all with token
+// buckets held in memory, so abusive traffic is turned away before it reaches the database or the mail provider.
+// With verification.store.persist the codes are also written through to the verification table, so they survive
+// a restart and can be checked on another instance.
+@Slf4j
+@Component
+public class VerificationCodeStore {
+    private static final int CODE_SPACE = 1_000_000;
+    private static final long MAX_TRACKED_CLIENTS = 100_000;
+
+    public enum CheckResult {VALID, INVALID, RATE_LIMITED}
+
+    private static final class Entry {
+        private final int code;
+        private final Instant expiresAt;
+        private final AtomicInteger attempts;
+
+        private Entry(int code, Instant expiresAt, int attempts) {
+            this.code = code;
+            this.expiresAt = expiresAt;
+            this.attempts = new AtomicInteger(attempts);
+        }
+    }
+
+    private record Limit(int capacity, double perHour) {
+        TokenBucket newBucket() {
+            return new TokenBucket(capacity, perHour / 3600.0);
+        }
+    }
+
+    private final VerificationRepository verificationRepository;
+    private final boolean persist;
+    private final Duration ttl;
+    private final int maxAttempts;
+    private final SecureRandom random = new SecureRandom();
+    private final Cache<String, Entry> codes;
+
+    private final Limit sendPerEmail;
+    private final Limit sendPerIp;
+    private final Limit checkPerIp;
+    private final Cache<String, TokenBucket> buckets;
+
+    private final Counter sendsLimited;
+    private final Counter checksLimited;
+    private final Counter exhausted;
+
+    public VerificationCodeStore(VerificationRepository verificationRepository,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${verification.store.persist:true}") boolean persist,
+                                 @Value("${verification.code.ttl-seconds:600}") long ttlSeconds,
+                                 @Value("${verification.code.max-attempts:5}") int maxAttempts,
+                                 @Value("${verification.send.per-email.capacity:3}") int sendPerEmailCapacity,
+                                 @Value("${verification.send.per-email.per-hour:10}") double sendPerEmailPerHour,
+                                 @Value("${verification.send.per-ip.capacity:10}") int sendPerIpCapacity,
+                                 @Value("${verification.send.per-ip.per-hour:60}") double sendPerIpPerHour,
+                                 @Value("${verification.check.per-ip.capacity:20}") int checkPerIpCapacity,
+                                 @Value("${verification.check.per-ip.per-hour:120}") double checkPerIpPerHour) {
+        this.verificationRepository = verificationRepository;
+        this.persist = persist;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.maxAttempts = maxAttempts;
+        this.codes = Caffeine.newBuilder()
+                .maximumSize(MAX_TRACKED_CLIENTS)
+                .expireAfterWrite(ttl)
+                .build();
+        this.sendPerEmail = new Limit(sendPerEmailCapacity, sendPerEmailPerHour);
+        this.sendPerIp = new Limit(sendPerIpCapacity, sendPerIpPerHour);
+        this.checkPerIp = new Limit(checkPerIpCapacity, checkPerIpPerHour);
+        // An idle bucket refills completely within the hour, so forgetting it after that changes nothing
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(MAX_TRACKED_CLIENTS)
+                .expireAfterAccess(Duration.ofHours(1))
+                .build();
+        this.sendsLimited = Counter.builder("verification.rejected").tag("reason", "send_rate").register(meterRegistry);
+        this.checksLimited = Counter.builder("verification.rejected").tag("reason", "check_rate").register(meterRegistry);
+        this.exhausted = Counter.builder("verification.rejected").tag("reason", "attempts").register(meterRegistry);
+    }
+
+    // A fresh code for the email, replacing any earlier one. Empty when the email or client IP is sending too often.
+    public Optional<Integer> issue(String email, String clientIp) {
+        String key = normalize(email);
+        if (!take("send-ip:" + clientIp, sendPerIp) || !take("send-email:" + key, sendPerEmail)) {
+            sendsLimited.increment();
+            return Optional.empty();
+        }
+        int code = random.nextInt(CODE_SPACE);
+        Instant expiresAt = Instant.now().plus(ttl);
+        codes.put(key, new Entry(code, expiresAt, 0));
+        if (persist) {
+            save(key, code, expiresAt);
+        }
+        return Optional.of(code);
+    }
+
+    // A valid code is used up by the check that accepts it
+    public CheckResult check(String email, Integer code, String clientIp) {
+        if (!take("check-ip:" + clientIp, checkPerIp)) {
+            checksLimited.increment();
+            return CheckResult.RATE_LIMITED;
+        }
+        String key = normalize(email);
+        Entry entry = codes.getIfPresent(key);
+        if (entry == null && persist) {
+            entry = load(key);
+        }
+        if (entry == null || !entry.expiresAt.isAfter(Instant.now())) {
+            return CheckResult.INVALID;
+        }
+        if (code != null && code == entry.code) {
+            // Only one of several concurrent checks with the right code gets to consume it
+            if (!codes.asMap().remove(key, entry)) {
+                return CheckResult.INVALID;
+            }
+            if (persist) {
+                verificationRepository.deleteByEmail(key);
+            }
+            return CheckResult.VALID;
+        }
+        int attempts = entry.attempts.incrementAndGet();
+        if (attempts >= maxAttempts) {
+            exhausted.increment();
+            codes.asMap().remove(key, entry);
+            if (persist) {
+                verificationRepository.deleteByEmail(key);
+            }
+        } else if (persist) {
+            verificationRepository.updateAttempts(key, attempts);
+        }
+        return CheckResult.INVALID;
+    }
+
+    @Scheduled(fixedDelayString = "${verification.sweep-interval-ms:60000}")
+    public void sweepExpired() {
+        codes.cleanUp();
+        buckets.cleanUp();
+        if (persist) {
+            int deleted = verificationRepository.deleteExpired(Instant.now());
+            if (deleted > 0) {
+                log.info("Swept {} expired verification codes", deleted);
+            }
+        }
+    }
+
+    private boolean take(String key, Limit limit) {
+        return buckets.get(key, k -> limit.newBucket()).tryConsume();
+    }
+
+    private void save(String email, int code, Instant expiresAt) {
+        if (verificationRepository.replaceCode(email, code, expiresAt) > 0) {
+            return;
+        }
+        Verification verification = new Verification();
+        verification.setEmail(email);
+        verification.setCode(code);
+        verification.setExpiresAt(expiresAt);
+        try {
+            verificationRepository.save(verification);
+        } catch (DataIntegrityViolationException e) {
+            // Another instance inserted the row first
+            verificationRepository.replaceCode(email, code, expiresAt);
+        }
+    }
+
+    private Entry load(String email) {
+        Verification verification = verificationRepository.findByEmail(email);
+        if (verification == null || verification.getExpiresAt() == null) {
+            return null;
+        }
+        Entry entry = new Entry(verification.getCode(), verification.getExpiresAt(), verification.getAttempts());
+        Entry existing = codes.asMap().putIfAbsent(email, entry);
+        return existing == null ? entry : existing;
+    }
+
+    private static String normalize(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,191 @@
+package com.yoursay.backend.service;
+
+import com.yoursay.backend.domain.VoteRequest;
+import com.yoursay.backend.domain.VoteTally;
+import com.yoursay.backend.repository.VotingRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Per-bill yes/no counts kept in memory and updated with every vote write, so reads are O(1) per bill.
+// All vote writes go through here: each write learns which vote it replaced, which makes flips exact.
+// A periodic reconcile rebuilds the counts from the voting table to pick up writes made by other instances.
+// Its aggregate runs without blocking writers; their changes during the scan are replayed onto the rebuilt
+// counts, which are swapped in under a short lock.
+@Slf4j
+@Service
+public class VoteTallyService {
+    private static final class Counts {
+        private final LongAdder yes = new LongAdder();
+        private final LongAdder no = new LongAdder();
+    }
+
+    private final VotingRepository votingRepository;
+    // Counter updates hold the read lock; reconcile takes the write lock only to start a scan and to swap
+    private final ReentrantReadWriteLock reconcileLock = new ReentrantReadWriteLock();
+    private final Counter corrections;
+
+    private volatile ConcurrentHashMap<Integer, Counts> tallies = new ConcurrentHashMap<>();
+    // Counter changes made while a reconcile scan runs, replayed onto its result; null when no scan is running
+    private ConcurrentHashMap<Integer, Counts> scanDeltas;
+    private final Set<Integer> changedBills = ConcurrentHashMap.newKeySet();
+    private boolean loaded;
+
+    public VoteTallyService(VotingRepository votingRepository, MeterRegistry meterRegistry) {
+        this.votingRepository = votingRepository;
+        this.corrections = Counter.builder("votes.tally.corrections").register(meterRegistry);
+    }
+
+    public void recordVote(String email, Integer billId, Boolean vote) {
+        // The upsert reports the vote it replaced under its row lock, so racing writes need no lock here
+        Boolean previous = votingRepository.upsert(email, billId, vote);
+        reconcileLock.readLock().lock();
+        try {
+            apply(billId, previous, vote);
+        } finally {
+            reconcileLock.readLock().unlock();
+        }
+    }
+
+    // Batch variant for the write-behind buffer, whose flushes are already serialized
+    public void recordVotes(List<VoteRequest> votes) {
+        List<Boolean> previous = votingRepository.upsertAll(votes);
+        reconcileLock.readLock().lock();
+        try {
+            for (int i = 0; i < votes.size(); i++) {
+                VoteRequest vote = votes.get(i);
+                apply(vote.getBill_id(), previous.get(i), vote.getVote());
+            }
+        } finally {
+            reconcileLock.readLock().unlock();
+        }
+    }
+
+    public VoteTally getTally(Integer billId) {
+        Counts counts = tallies.get(billId);
+        if (counts == null) {
+            return new VoteTally(billId, 0, 0);
+        }
+        return new VoteTally(billId, counts.yes.sum(), counts.no.sum());
+    }
+
+    public List<VoteTally> getTallies(Collection<Integer> billIds) {
+        List<VoteTally> result = new ArrayList<>(billIds.size());
+        for (Integer billId : billIds) {
+            result.add(getTally(billId));
+        }
+        return result;
+    }
+
+    // Bills whose counts moved since the last call
+    public Set<Integer> takeChangedBills() {
+        Set<Integer> taken = new HashSet<>();
+        Iterator<Integer> it = changedBills.iterator();
+        while (it.hasNext()) {
+            taken.add(it.next());
+            it.remove();
+        }
+        return taken;
+    }
+
+    // A write whose upsert commits just before the scan but whose counter lands just after it started is counted
+    // twice on that bill until the next reconcile; holding writers off for the whole scan would cost far more.
+    @Scheduled(initialDelay = 0, fixedDelayString = "${votes.tally.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        reconcileLock.writeLock().lock();
+        try {
+            scanDeltas = new ConcurrentHashMap<>();
+        } finally {
+            reconcileLock.writeLock().unlock();
+        }
+
+        List<VotingRepository.BillTallyRow> rows;
+        try {
+            rows = votingRepository.tallyAllBills();
+        } catch (RuntimeException e) {
+            reconcileLock.writeLock().lock();
+            try {
+                scanDeltas = null;
+            } finally {
+                reconcileLock.writeLock().unlock();
+            }
+            throw e;
+        }
+        ConcurrentHashMap<Integer, Counts> rebuilt = new ConcurrentHashMap<>();
+        for (VotingRepository.BillTallyRow row : rows) {
+            Counts counts = new Counts();
+            counts.yes.add(row.getYesCount());
+            counts.no.add(row.getNoCount());
+            rebuilt.put(row.getBillId(), counts);
+        }
+
+        reconcileLock.writeLock().lock();
+        try {
+            scanDeltas.forEach((billId, delta) -> {
+                Counts counts = rebuilt.computeIfAbsent(billId, id -> new Counts());
+                counts.yes.add(delta.yes.sum());
+                counts.no.add(delta.no.sum());
+            });
+            scanDeltas = null;
+
+            int corrected = 0;
+            Set<Integer> billIds = new HashSet<>(tallies.keySet());
+            billIds.addAll(rebuilt.keySet());
+            for (Integer billId : billIds) {
+                VoteTally before = getTally(billId);
+                Counts after = rebuilt.get(billId);
+                long yes = after == null ? 0 : after.yes.sum();
+                long no = after == null ? 0 : after.no.sum();
+                if (before.getYes() != yes || before.getNo() != no) {
+                    corrected++;
+                    if (loaded) {
+                        changedBills.add(billId);
+                    }
+                }
+            }
+            tallies = rebuilt;
+            if (!loaded) {
+                loaded = true;
+                log.info("Loaded vote tallies for {} bills", rebuilt.size());
+            } else if (corrected > 0) {
+                corrections.increment(corrected);
+                log.info("Vote tally reconcile corrected {} bills", corrected);
+            }
+        } finally {
+            reconcileLock.writeLock().unlock();
+        }
+    }
+
+    private void apply(Integer billId, Boolean previous, Boolean current) {
+        if (billId == null || Objects.equals(previous, current)) {
+            return;
+        }
+        add(tallies.computeIfAbsent(billId, id -> new Counts()), previous, current);
+        if (scanDeltas != null) {
+            add(scanDeltas.computeIfAbsent(billId, id -> new Counts()), previous, current);
+        }
+        changedBills.add(billId);
+    }
+
+    private static void add(Counts counts, Boolean previous, Boolean current) {
+        if (previous != null) {
+            (previous ? counts.yes : counts.no).decrement();
+        }
+        if (current != null) {
+            (current ? counts.yes : counts.no).increment();
+        }
+    }
+}
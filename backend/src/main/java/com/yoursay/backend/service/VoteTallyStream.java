@@ -0,0 +1,121 @@
+package com.yoursay.backend.service;
+
+import com.yoursay.backend.domain.VoteTally;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Live tally fan-out. Once per votes.stream.interval-ms the bills whose counts moved are coalesced into one
+// snapshot of their current totals and pushed through a single multicast sink; each subscriber keeps only the
+// bills it watches. Subscribers hold no thread while idle, and a slow one drops its oldest snapshots
+// rather than holding up the others. An empty list is a heartbeat, sent after heartbeat-ticks idle ticks.
+@Component
+public class VoteTallyStream {
+    private static final int SUBSCRIBER_BUFFER = 32;
+
+    private final VoteTallyService voteTallyService;
+    private final int maxSubscribers;
+    private final int heartbeatTicks;
+    private final Duration maxDuration;
+
+    private final Sinks.Many<Map<Integer, VoteTally>> sink = Sinks.many().multicast().directBestEffort();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private int idleTicks;
+
+    public VoteTallyStream(VoteTallyService voteTallyService,
+                           MeterRegistry meterRegistry,
+                           @Value("${votes.stream.max-subscribers:5000}") int maxSubscribers,
+                           @Value("${votes.stream.heartbeat-ticks:15}") int heartbeatTicks,
+                           @Value("${votes.stream.max-duration-ms:1800000}") long maxDurationMs) {
+        this.voteTallyService = voteTallyService;
+        this.maxSubscribers = maxSubscribers;
+        this.heartbeatTicks = heartbeatTicks;
+        this.maxDuration = Duration.ofMillis(maxDurationMs);
+        Gauge.builder("votes.stream.subscribers", subscribers, AtomicInteger::get).register(meterRegistry);
+    }
+
+    // Current totals for the watched bills first, then every change to them, until max-duration-ms has passed and
+    // the client reconnects. Empty when the stream is full. The slot is taken when the returned Flux is subscribed,
+    // not when it is built, so a Flux that is never subscribed holds none; one that loses the race for the last
+    // slot fails with RejectedExecutionException.
+    public Optional<Flux<List<VoteTally>>> subscribe(Collection<Integer> billIds) {
+        if (subscribers.get() >= maxSubscribers) {
+            return Optional.empty();
+        }
+        Set<Integer> watched = Set.copyOf(billIds);
+        return Optional.of(Flux.defer(() -> {
+            if (subscribers.incrementAndGet() > maxSubscribers) {
+                subscribers.decrementAndGet();
+                return Flux.error(new RejectedExecutionException("Vote tally stream is full"));
+            }
+            Flux<List<VoteTally>> updates = sink.asFlux()
+                    .onBackpressureBuffer(SUBSCRIBER_BUFFER, dropped -> { }, BufferOverflowStrategy.DROP_OLDEST)
+                    .handle((changed, out) -> {
+                        List<VoteTally> tallies = watchedIn(changed, watched);
+                        if (changed.isEmpty() || !tallies.isEmpty()) {
+                            out.next(tallies);
+                        }
+                    });
+            return Flux.concat(Flux.defer(() -> Flux.just(voteTallyService.getTallies(watched))), updates)
+                    .take(maxDuration)
+                    .doFinally(signal -> subscribers.decrementAndGet());
+        }));
+    }
+
+    public int subscriberCount() {
+        return subscribers.get();
+    }
+
+    @Scheduled(fixedDelayString = "${votes.stream.interval-ms:1000}")
+    public void publish() {
+        Set<Integer> changed = voteTallyService.takeChangedBills();
+        if (changed.isEmpty()) {
+            if (++idleTicks >= heartbeatTicks) {
+                idleTicks = 0;
+                sink.tryEmitNext(Map.of());
+            }
+            return;
+        }
+        idleTicks = 0;
+        Map<Integer, VoteTally> snapshot = new HashMap<>();
+        for (Integer billId : changed) {
+            snapshot.put(billId, voteTallyService.getTally(billId));
+        }
+        sink.tryEmitNext(snapshot);
+    }
+
+    private static List<VoteTally> watchedIn(Map<Integer, VoteTally> changed, Set<Integer> watched) {
+        List<VoteTally> tallies = new ArrayList<>();
+        if (changed.size() < watched.size()) {
+            for (Map.Entry<Integer, VoteTally> entry : changed.entrySet()) {
+                if (watched.contains(entry.getKey())) {
+                    tallies.add(entry.getValue());
+                }
+            }
+        } else {
+            for (Integer billId : watched) {
+                VoteTally tally = changed.get(billId);
+                if (tally != null) {
+                    tallies.add(tally);
+                }
+            }
+        }
+        return tallies;
+    }
+}
@@ -0,0 +1,220 @@
+package com.yoursay.backend.service;
+
+import com.yoursay.backend.domain.VoteRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Write-behind buffer for votes (votes.ingestion.mode=buffered). Votes are coalesced per (email, bill_id),
+// last write wins, and flushed in JDBC batches when batch-size votes are pending or every flush-interval-ms.
+// Every database write goes through the flush lock, so a vote can never be overwritten by an older one.
+// When max-pending distinct votes are waiting, the caller runs a flush itself before its vote is accepted, and
+// the vote is refused if the buffer is still full afterwards because the database keeps failing.
+// Pending votes are grouped by email, so reading one user's unflushed votes never walks the whole buffer.
+@Slf4j
+@Component
+public class VoteWriteBuffer {
+    private final VoteTallyService voteTallyService;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxPending;
+
+    // email -> bill id -> vote. A user's inner map is only changed inside compute on the outer map, which keeps
+    // pendingCount exact and lets an emptied inner map be removed without losing a concurrent vote.
+    private final ConcurrentHashMap<String, ConcurrentHashMap<Integer, VoteRequest>> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ExecutorService flusher = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "vote-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean accepting = true;
+
+    private final Timer flushTimer;
+    private final Counter flushedVotes;
+    private final Counter overflows;
+    private final Counter rejections;
+    private final Counter failedFlushes;
+
+    public VoteWriteBuffer(VoteTallyService voteTallyService,
+                           MeterRegistry meterRegistry,
+                           @Value("${votes.ingestion.mode:direct}") String mode,
+                           @Value("${votes.buffer.batch-size:500}") int batchSize,
+                           @Value("${votes.buffer.max-pending:10000}") int maxPending) {
+        if (batchSize < 1 || maxPending < batchSize) {
+            throw new IllegalArgumentException("votes.buffer.max-pending must be at least votes.buffer.batch-size");
+        }
+        this.voteTallyService = voteTallyService;
+        this.enabled = "buffered".equalsIgnoreCase(mode);
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+
+        Gauge.builder("votes.buffer.pending", pendingCount, AtomicInteger::get).register(meterRegistry);
+        this.flushTimer = Timer.builder("votes.buffer.flush").register(meterRegistry);
+        this.flushedVotes = Counter.builder("votes.buffer.flushed").register(meterRegistry);
+        this.overflows = Counter.builder("votes.buffer.overflow").register(meterRegistry);
+        this.rejections = Counter.builder("votes.buffer.rejected").register(meterRegistry);
+        this.failedFlushes = Counter.builder("votes.buffer.flush.failed").register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // False when the buffer is full and flushing did not free any room; the vote was not taken
+    public boolean offer(VoteRequest request) {
+        if (isFull(request)) {
+            overflows.increment();
+            flush();
+            if (isFull(request)) {
+                rejections.increment();
+                return false;
+            }
+        }
+        put(copyOf(request), true);
+
+        if (!accepting) {
+            flush();
+        } else if (pendingCount.get() >= batchSize && flushScheduled.compareAndSet(false, true)) {
+            try {
+                flusher.execute(() -> {
+                    flushScheduled.set(false);
+                    flush();
+                });
+            } catch (RejectedExecutionException e) {
+                flushScheduled.set(false);
+                flush();
+            }
+        }
+        return true;
+    }
+
+    // Buffered votes for one user that have not reached the database yet, keyed by bill id.
+    public Map<Integer, Boolean> pendingFor(String email) {
+        Map<Integer, Boolean> votes = new HashMap<>();
+        Map<Integer, VoteRequest> forEmail = pending.get(email);
+        if (forEmail != null) {
+            forEmail.forEach((billId, vote) -> votes.put(billId, vote.getVote()));
+        }
+        return votes;
+    }
+
+    @Scheduled(fixedDelayString = "${votes.buffer.flush-interval-ms:1000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            while (!pending.isEmpty()) {
+                List<VoteRequest> batch = takeBatch();
+                if (batch.isEmpty()) {
+                    return;
+                }
+                if (!write(batch)) {
+                    return;
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void drain() throws InterruptedException {
+        accepting = false;
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+        flush();
+        if (!pending.isEmpty()) {
+            log.error("Dropping {} buffered votes that could not be written on shutdown", pendingCount.get());
+        }
+    }
+
+    private List<VoteRequest> takeBatch() {
+        List<VoteRequest> batch = new ArrayList<>(batchSize);
+        Iterator<String> emails = pending.keySet().iterator();
+        while (batch.size() < batchSize && emails.hasNext()) {
+            pending.computeIfPresent(emails.next(), (email, votes) -> {
+                Iterator<VoteRequest> it = votes.values().iterator();
+                while (batch.size() < batchSize && it.hasNext()) {
+                    batch.add(it.next());
+                    it.remove();
+                    pendingCount.decrementAndGet();
+                }
+                return votes.isEmpty() ? null : votes;
+            });
+        }
+        return batch;
+    }
+
+    private boolean write(List<VoteRequest> batch) {
+        long start = System.nanoTime();
+        try {
+            voteTallyService.recordVotes(batch);
+            flushedVotes.increment(batch.size());
+            return true;
+        } catch (RuntimeException e) {
+            failedFlushes.increment();
+            log.warn("Flushing {} buffered votes failed, will retry: {}", batch.size(), e.getMessage());
+            // Anything written to the buffer since the batch was taken is newer and must win
+            for (VoteRequest vote : batch) {
+                put(vote, false);
+            }
+            return false;
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // A vote replacing one already pending takes no extra room
+    private boolean isFull(VoteRequest request) {
+        return pendingCount.get() >= maxPending && !isPending(request.getEmail(), request.getBill_id());
+    }
+
+    private boolean isPending(String email, Integer billId) {
+        Map<Integer, VoteRequest> votes = pending.get(email);
+        return votes != null && votes.containsKey(billId);
+    }
+
+    private void put(VoteRequest vote, boolean replace) {
+        pending.compute(vote.getEmail(), (email, votes) -> {
+            ConcurrentHashMap<Integer, VoteRequest> forEmail = votes != null ? votes : new ConcurrentHashMap<>();
+            VoteRequest previous = replace ? forEmail.put(vote.getBill_id(), vote) : forEmail.putIfAbsent(vote.getBill_id(), vote);
+            if (previous == null) {
+                pendingCount.incrementAndGet();
+            }
+            return forEmail;
+        });
+    }
+
+    private static VoteRequest copyOf(VoteRequest request) {
+        VoteRequest copy = new VoteRequest();
+        copy.setEmail(request.getEmail());
+        copy.setBill_id(request.getBill_id());
+        copy.setVote(request.getVote());
+        return copy;
+    }
+}
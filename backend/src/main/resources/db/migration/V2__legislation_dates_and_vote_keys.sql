@@ -0,0 +1,29 @@
+-- Legislation: typed bill dates, the LegiScan change hash used by the import, and the feed indexes
+
+-- bill_date held LegiScan's status_date as text; anything that is not an ISO date becomes NULL
+ALTER TABLE legislation ALTER COLUMN bill_date TYPE DATE
+    USING CASE WHEN bill_date LIKE '____-__-__' THEN CAST(bill_date AS DATE) END;
+
+ALTER TABLE legislation ADD COLUMN change_hash VARCHAR(32);
+
+UPDATE legislation SET bill_level = UPPER(bill_level);
+ALTER TABLE legislation ALTER COLUMN bill_level TYPE VARCHAR(10);
+ALTER TABLE legislation ADD CONSTRAINT chk_legislation_bill_level CHECK (bill_level IN ('LOCAL', 'STATE', 'FEDERAL'));
+
+-- Feed lookups filter on level + state/zipcode and page newest first on (bill_date, id), undated bills last
+CREATE INDEX IF NOT EXISTS idx_legislation_state_feed ON legislation (bill_level, state, bill_date DESC NULLS LAST, id DESC);
+CREATE INDEX IF NOT EXISTS idx_legislation_zipcode_feed ON legislation (bill_level, zipcode, bill_date DESC NULLS LAST, id DESC);
+
+-- Votes and opinions: one row per (email, bill_id), which the upserts rely on. Earlier code appended a row per
+-- submission, so keep only the newest row of each pair before adding the constraints.
+DELETE FROM voting
+WHERE EXISTS (SELECT 1 FROM voting newer
+              WHERE newer.email = voting.email AND newer.bill_id = voting.bill_id AND newer.id > voting.id);
+ALTER TABLE voting ADD CONSTRAINT uq_voting_email_bill UNIQUE (email, bill_id);
+CREATE INDEX IF NOT EXISTS idx_voting_bill_id ON voting (bill_id);
+
+DELETE FROM opinions
+WHERE EXISTS (SELECT 1 FROM opinions newer
+              WHERE newer.email = opinions.email AND newer.bill_id = opinions.bill_id AND newer.id > opinions.id);
+ALTER TABLE opinions ADD CONSTRAINT uq_opinions_email_bill UNIQUE (email, bill_id);
+CREATE INDEX IF NOT EXISTS idx_opinions_bill_id ON opinions (bill_id);
@@ -0,0 +1,11 @@
+CREATE TABLE IF NOT EXISTS ai_summary (
+    id SERIAL PRIMARY KEY,
+    state VARCHAR(10) NOT NULL,
+    bill_id VARCHAR(20) NOT NULL,
+    summary TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uq_ai_summary_state_bill UNIQUE (state, bill_id)
+);
+
+-- Import invalidation deletes by bill_id alone
+CREATE INDEX IF NOT EXISTS idx_ai_summary_bill_id ON ai_summary (bill_id);
@@ -0,0 +1,13 @@
+CREATE TABLE IF NOT EXISTS refresh_token (
+    token_hash CHAR(64) PRIMARY KEY,
+    family_id VARCHAR(36) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    rotated_at TIMESTAMP,
+    revoked BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Reuse detection revokes a whole login by family, and the purge deletes by expiry
+CREATE INDEX IF NOT EXISTS idx_refresh_token_family ON refresh_token (family_id);
+CREATE INDEX IF NOT EXISTS idx_refresh_token_expires ON refresh_token (expires_at);
@@ -0,0 +1,10 @@
+-- Outbound mail that still failed after every retry, kept for inspection and manual resend
+CREATE TABLE IF NOT EXISTS mail_dead_letter (
+    id SERIAL PRIMARY KEY,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    html TEXT NOT NULL,
+    attempts INTEGER NOT NULL,
+    last_error TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
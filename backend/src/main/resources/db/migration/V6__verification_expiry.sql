@@ -0,0 +1,9 @@
+ALTER TABLE verification ADD COLUMN expires_at TIMESTAMP;
+ALTER TABLE verification ADD COLUMN attempts INTEGER NOT NULL DEFAULT 0;
+
+-- Codes issued before this change never expired; drop them rather than keep them valid forever
+DELETE FROM verification WHERE expires_at IS NULL;
+ALTER TABLE verification ALTER COLUMN expires_at SET NOT NULL;
+
+-- The background sweep deletes by expiry
+CREATE INDEX IF NOT EXISTS idx_verification_expires ON verification (expires_at);
@@ -0,0 +1,3 @@
+-- Dead letters record which template failed instead of the rendered body, which carried the verification code
+ALTER TABLE mail_dead_letter ADD COLUMN template VARCHAR(64);
+ALTER TABLE mail_dead_letter DROP COLUMN html;
@@ -0,0 +1,73 @@
+package com.yoursay.backend;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs against the embedded server, since forwarded headers are resolved by Tomcat before any filter sees the request.
+// Requests come from loopback, the default trusted proxy, on behalf of the client named in X-Forwarded-For.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "ratelimit.routes=/api/ping:2:1,/api/**:300:1200",
+        "verification.send.per-ip.capacity=1"
+})
+@ActiveProfiles("test")
+class ForwardedClientAddressTests {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM verification WHERE email LIKE '%@forwarded.test'");
+    }
+
+    @Test
+    void clientsBehindTheProxyGetTheirOwnRateLimit() throws Exception {
+        assertThat(ping("203.0.113.7")).isEqualTo(200);
+        assertThat(ping("203.0.113.7")).isEqualTo(200);
+        assertThat(ping("203.0.113.7")).isEqualTo(429);
+
+        assertThat(ping("198.51.100.23")).isEqualTo(200);
+    }
+
+    @Test
+    void verificationSendsAreLimitedPerForwardedClient() throws Exception {
+        assertThat(sendVerification("203.0.113.8", "first@forwarded.test")).isEqualTo(200);
+        assertThat(sendVerification("203.0.113.8", "second@forwarded.test")).isEqualTo(429);
+
+        assertThat(sendVerification("198.51.100.24", "third@forwarded.test")).isEqualTo(200);
+    }
+
+    private int sendVerification(String clientAddress, String email) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/users/send-verification"))
+                .header("X-Forwarded-For", clientAddress)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"" + email + "\"}"))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private int ping(String clientAddress) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/ping"))
+                .header("X-Forwarded-For", clientAddress)
+                .GET()
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,79 @@
+package com.yoursay.backend;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SchemaMigrationTests {
+
+	@Autowired
+	private Flyway flyway;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void appliesMigrationsAndSeedsTheTestUser() {
+		assertThat(flyway.info().pending()).isEmpty();
+		assertThat(flyway.info().current().getVersion().getVersion()).isNotNull();
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE email = 'test@test.com'", Integer.class))
+				.isEqualTo(1);
+	}
+
+	@Test
+	void rerunningMigrationsKeepsExistingData() {
+		jdbcTemplate.update("INSERT INTO voting (bill_id, email, vote) VALUES (4242, 'keep@test.com', true)");
+
+		// A restart runs migrate() again; it must not drop or re-seed anything
+		assertThat(flyway.migrate().migrationsExecuted).isZero();
+
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM voting WHERE email = 'keep@test.com'", Integer.class))
+				.isEqualTo(1);
+		jdbcTemplate.update("DELETE FROM voting WHERE email = 'keep@test.com'");
+	}
+
+	@Test
+	void upgradesADatabaseCreatedByTheOldSchemaScript() {
+		DriverManagerDataSource legacy = new DriverManagerDataSource(
+				"jdbc:h2:mem:legacy;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+		new ResourceDatabasePopulator(new ClassPathResource("legacy/schema.sql")).execute(legacy);
+		JdbcTemplate db = new JdbcTemplate(legacy);
+		db.update("INSERT INTO legislation (bill_id, title, bill_level, state, bill_date) VALUES " +
+				"(1, 'Dated', 'STATE', 'MI', '2024-02-03'), (2, 'Garbled', 'STATE', 'MI', 'soon'), (3, 'Undated', 'FEDERAL', 'US', NULL)");
+		db.update("INSERT INTO voting (bill_id, email, vote) VALUES (1, 'a@test.com', true), (1, 'a@test.com', false), (2, 'a@test.com', true)");
+		db.update("INSERT INTO opinions (bill_id, email, opinion) VALUES (1, 'a@test.com', 'first'), (1, 'a@test.com', 'second')");
+
+		// What the app does on boot against a database that has tables but no Flyway history
+		Flyway upgrade = Flyway.configure().dataSource(legacy).baselineOnMigrate(true).load();
+		upgrade.migrate();
+
+		assertThat(upgrade.info().pending()).isEmpty();
+		assertThat(upgrade.info().current().getVersion().getVersion()).isEqualTo(flyway.info().current().getVersion().getVersion());
+		assertThat(db.queryForObject("SELECT bill_date FROM legislation WHERE bill_id = 1", LocalDate.class)).isEqualTo(LocalDate.of(2024, 2, 3));
+		assertThat(db.queryForObject("SELECT bill_date FROM legislation WHERE bill_id = 2", LocalDate.class)).isNull();
+		db.update("UPDATE legislation SET change_hash = 'abc' WHERE bill_id = 3");
+
+		// Duplicates collapse to the newest row and can no longer be created
+		assertThat(db.queryForList("SELECT vote FROM voting WHERE email = 'a@test.com' AND bill_id = 1", Boolean.class)).containsExactly(false);
+		assertThat(db.queryForList("SELECT opinion FROM opinions WHERE email = 'a@test.com' AND bill_id = 1", String.class)).containsExactly("second");
+		assertThat(db.queryForObject("SELECT COUNT(*) FROM voting", Integer.class)).isEqualTo(2);
+		assertThatThrownBy(() -> db.update("INSERT INTO voting (bill_id, email, vote) VALUES (1, 'a@test.com', true)"))
+				.isInstanceOf(DataIntegrityViolationException.class);
+		assertThat(db.queryForObject("SELECT COUNT(*) FROM users WHERE email = 'test@test.com'", Integer.class)).isEqualTo(1);
+		db.execute("SHUTDOWN");
+	}
+}
@@ -0,0 +1,112 @@
+package com.yoursay.backend.controller;
+
+import com.yoursay.backend.service.SummaryModelClient;
+import com.yoursay.backend.service.VoteTallyStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithAnonymousUser;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(username = "reader@test.com")
+class LegislationControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private SummaryModelClient summaryModelClient;
+
+    @MockitoBean
+    private VoteTallyStream voteTallyStream;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM ai_summary WHERE bill_id IN ('9201', '9202')");
+        jdbcTemplate.update("DELETE FROM legislation WHERE bill_id IN (9201, 9202)");
+    }
+
+    @Test
+    void federalSummaryPregeneratedUnderUsIsServedToReadersFromAnyState() throws Exception {
+        jdbcTemplate.update("INSERT INTO legislation (bill_id, title, description, bill_level, state) " +
+                "VALUES (9201, 'Budget Act', 'Sets the budget.', 'FEDERAL', 'US')");
+        // As SummaryPregenerator stores it after the import
+        jdbcTemplate.update("INSERT INTO ai_summary (state, bill_id, summary) VALUES ('US', '9201', 'Pregenerated summary.')");
+
+        for (String readerState : new String[]{"MI", "OH"}) {
+            MvcResult pending = mockMvc.perform(post("/api/legislation/ai")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"state\":\"" + readerState + "\",\"bill_id\":\"9201\",\"title\":\"Budget Act\"}"))
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(pending))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist("X-Summary-Fallback"))
+                    .andExpect(content().string("Pregenerated summary."));
+        }
+
+        verify(summaryModelClient, never()).summarizeBill(any(), any(), any());
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ai_summary WHERE bill_id = '9201'", Integer.class))
+                .isEqualTo(1);
+    }
+
+    @Test
+    void tallyStreamThatLosesTheLastSlotOnSubscriptionGets503() throws Exception {
+        when(voteTallyStream.subscribe(List.of(1))).thenReturn(Optional.of(
+                Flux.error(new RejectedExecutionException("Vote tally stream is full"))));
+
+        MvcResult pending = mockMvc.perform(get("/api/legislation/vote/tally/stream").param("billIds", "1")).andReturn();
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    @WithAnonymousUser
+    void missingOrInvalidAccessTokensGet401SoTheClientRefreshes() throws Exception {
+        mockMvc.perform(get("/api/legislation/federal")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/legislation/federal").header("Authorization", "Bearer expired.or.forged"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void unknownBillsAreRejectedWithoutCallingTheModel() throws Exception {
+        MvcResult pending = mockMvc.perform(post("/api/legislation/ai")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"state\":\"MI\",\"bill_id\":\"9202\",\"title\":\"Anything\"}"))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(pending)).andExpect(status().isNotFound());
+
+        verify(summaryModelClient, never()).summarizeBill(any(), any(), any());
+    }
+}
@@ -0,0 +1,131 @@
+package com.yoursay.backend.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimitFilterTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void limitsEachClientSeparatelyOnTheFirstMatchingRoute() throws Exception {
+        RateLimitFilter filter = filter("/api/users/login:2:1,/api/**:100:100", 10);
+
+        assertThat(status(filter, "/api/users/login", "10.0.0.1")).isEqualTo(200);
+        assertThat(status(filter, "/api/users/login", "10.0.0.1")).isEqualTo(200);
+        MockHttpServletResponse rejected = call(filter, "/api/users/login", "10.0.0.1");
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("60");
+
+        assertThat(status(filter, "/api/users/login", "10.0.0.2")).isEqualTo(200);
+        assertThat(status(filter, "/api/ping", "10.0.0.1")).isEqualTo(200);
+        assertThat(meterRegistry.counter("ratelimit.rejected", "reason", "rate", "route", "/api/users/login").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void keysSignedInClientsByEmailAndGlobalRoutesByRoute() throws Exception {
+        RateLimitFilter filter = filter("/api/legislation/daily-fetch:1:1:global,/api/**:1:1", 10);
+
+        assertThat(status(filter, "/api/legislation/daily-fetch", "10.0.0.1")).isEqualTo(200);
+        assertThat(status(filter, "/api/legislation/daily-fetch", "10.0.0.2")).isEqualTo(429);
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("a@test.com", null, List.of()));
+        assertThat(status(filter, "/api/legislation/feed", "10.0.0.1")).isEqualTo(200);
+        // Same user from another address shares the bucket
+        assertThat(status(filter, "/api/legislation/feed", "10.0.0.9")).isEqualTo(429);
+    }
+
+    @Test
+    void shedsRequestsBeyondTheConcurrencyBudget() throws Exception {
+        RateLimitFilter filter = filter("", 1);
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain slow = (request, response) -> {
+            inside.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        CompletableFuture<Void> busy = CompletableFuture.runAsync(() -> {
+            try {
+                filter.doFilter(request("/api/ping", "10.0.0.1"), new MockHttpServletResponse(), slow);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(inside.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(status(filter, "/api/ping", "10.0.0.2")).isEqualTo(429);
+        assertThat(meterRegistry.counter("ratelimit.rejected", "reason", "concurrency", "route", "*").count()).isEqualTo(1.0);
+
+        release.countDown();
+        busy.get(5, TimeUnit.SECONDS);
+        assertThat(status(filter, "/api/ping", "10.0.0.2")).isEqualTo(200);
+    }
+
+    @Test
+    void holdsTheConcurrencyPermitUntilAnAsyncResponseCompletes() throws Exception {
+        RateLimitFilter filter = filter("", 1);
+        MockHttpServletRequest asyncRequest = request("/api/users/login", "10.0.0.1");
+        asyncRequest.setAsyncSupported(true);
+        filter.doFilter(asyncRequest, new MockHttpServletResponse(), (request, response) -> request.startAsync());
+
+        // The handler returned but its response is still pending, so it keeps the only permit
+        assertThat(status(filter, "/api/ping", "10.0.0.2")).isEqualTo(429);
+
+        // Streams have their own subscriber ceiling and do not count against the budget
+        assertThat(status(filter, "/api/legislation/vote/tally/stream", "10.0.0.3")).isEqualTo(200);
+
+        asyncRequest.getAsyncContext().complete();
+        assertThat(status(filter, "/api/ping", "10.0.0.2")).isEqualTo(200);
+        assertThat(status(filter, "/api/ping", "10.0.0.2")).isEqualTo(200);
+    }
+
+    @Test
+    void rejectsMalformedRouteConfig() {
+        assertThatThrownBy(() -> filter("/api/users/login:10", 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> filter("/api/**:10:1:everyone", 10)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private RateLimitFilter filter(String routes, int maxConcurrent) {
+        return new RateLimitFilter(meterRegistry, true, routes, maxConcurrent, List.of("/api/legislation/vote/tally/stream"));
+    }
+
+    private static int status(RateLimitFilter filter, String path, String ip) throws Exception {
+        return call(filter, path, ip).getStatus();
+    }
+
+    private static MockHttpServletResponse call(RateLimitFilter filter, String path, String ip) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(path, ip), response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String path, String ip) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setRemoteAddr(ip);
+        return request;
+    }
+}
@@ -0,0 +1,75 @@
+package com.yoursay.backend.repository;
+
+import com.yoursay.backend.domain.BillLevel;
+import com.yoursay.backend.domain.Legislation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// ON CONFLICT ... RETURNING is Postgres-only, so this runs against the Postgres container
+class LegislationUpsertTests extends PostgresTestBase {
+
+	private static final String STATE = "QQ";
+
+	@Autowired
+	private LegislationRepository legislationRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@AfterEach
+	void cleanUp() {
+		jdbcTemplate.update("DELETE FROM legislation WHERE state = ?", STATE);
+	}
+
+	@Test
+	void returnsOnlyTheBillsThatWereInsertedOrChanged() {
+		legislationRepository.upsertImported(List.of(
+				bill(8801, "a", LocalDate.of(2025, 1, 1)),
+				bill(8802, "b", LocalDate.of(2025, 1, 2)),
+				bill(8803, "c", null)));
+
+		List<Integer> written = legislationRepository.upsertImported(List.of(
+				bill(8801, "a", LocalDate.of(2025, 1, 1)),
+				bill(8802, "b2", LocalDate.of(2025, 1, 2)),
+				bill(8803, "c", LocalDate.of(2025, 1, 3)),
+				bill(8804, "d", null)));
+
+		assertThat(written).containsExactlyInAnyOrder(8802, 8803, 8804);
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT change_hash FROM legislation WHERE bill_id = 8802", String.class)).isEqualTo("b2");
+	}
+
+	@Test
+	void syncPrunesBillsThatLeftTheWindowButKeepsEverythingOnAnEmptyWindow() {
+		legislationRepository.syncImportedState(STATE, List.of(bill(8811, "a", null), bill(8812, "b", null)));
+
+		legislationRepository.syncImportedState(STATE, List.of(bill(8812, "b", null)));
+		assertThat(ids()).containsExactly(8812);
+
+		legislationRepository.syncImportedState(STATE, List.of());
+		assertThat(ids()).containsExactly(8812);
+	}
+
+	private List<Integer> ids() {
+		return jdbcTemplate.queryForList("SELECT bill_id FROM legislation WHERE state = ? ORDER BY bill_id", Integer.class, STATE);
+	}
+
+	private static Legislation bill(int billId, String changeHash, LocalDate billDate) {
+		Legislation bill = new Legislation();
+		bill.setBill_id(billId);
+		bill.setTitle("Bill " + billId);
+		bill.setDescription("Description " + billId);
+		bill.setBillLevel(BillLevel.STATE);
+		bill.setState(STATE);
+		bill.setBillDate(billDate);
+		bill.setChangeHash(changeHash);
+		return bill;
+	}
+}
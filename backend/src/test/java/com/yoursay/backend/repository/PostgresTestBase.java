@@ -0,0 +1,33 @@
+package com.yoursay.backend.repository;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+// Base for tests of Postgres-only SQL such as ON CONFLICT and RETURNING. One throwaway container is started for
+// the whole run and migrated by Flyway like production; the tests are skipped where no Docker daemon is reachable.
+@SpringBootTest(properties = {
+		"spring.security.user.name=test",
+		"spring.security.user.password=test",
+		"resend.api.key=test",
+		"legiscan.api.key=test",
+		"ai.summary.pregenerate.enabled=false"
+})
+@Testcontainers(disabledWithoutDocker = true)
+abstract class PostgresTestBase {
+
+	private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+	@DynamicPropertySource
+	static void datasource(DynamicPropertyRegistry registry) {
+		// Started here rather than per class so every subclass shares the container and the cached context
+		if (!POSTGRES.isRunning()) {
+			POSTGRES.start();
+		}
+		registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+		registry.add("spring.datasource.username", POSTGRES::getUsername);
+		registry.add("spring.datasource.password", POSTGRES::getPassword);
+	}
+}
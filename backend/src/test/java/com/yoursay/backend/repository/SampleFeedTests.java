@@ -0,0 +1,112 @@
+package com.yoursay.backend.repository;
+
+import com.yoursay.backend.domain.BillLevel;
+import com.yoursay.backend.domain.Legislation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// sampleFeed is a native query using LN, RANDOM and window functions, so this runs against the Postgres container
+class SampleFeedTests extends PostgresTestBase {
+
+	private static final String STATE = "QS";
+	private static final String ZIPCODE = "99901";
+	private static final Set<String> NO_PREFERENCE = Set.of("");
+
+	@Autowired
+	private LegislationRepository legislationRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@AfterEach
+	void cleanUp() {
+		jdbcTemplate.update("DELETE FROM legislation WHERE bill_id BETWEEN 8900 AND 8999 OR zipcode = ? OR state = ?",
+				ZIPCODE, STATE);
+	}
+
+	@Test
+	void takesUpToPerLevelBillsFromEachFeed() {
+		seed("LOCAL", 3, 0);
+		seed("STATE", 20, 0);
+		seed("FEDERAL", 20, 0);
+
+		List<Legislation> sample = legislationRepository.sampleFeed(ZIPCODE, STATE, 5, false, 0, NO_PREFERENCE, 3.0);
+
+		assertThat(countByLevel(sample)).containsExactlyInAnyOrderEntriesOf(Map.of(
+				BillLevel.LOCAL, 3L, BillLevel.STATE, 5L, BillLevel.FEDERAL, 5L));
+		assertThat(sample).filteredOn(bill -> bill.getBillLevel() == BillLevel.STATE)
+				.allSatisfy(bill -> assertThat(bill.getState()).isEqualTo(STATE));
+		// Interleaved by rank, so every level is represented near the top
+		assertThat(sample.subList(0, 3)).extracting(Legislation::getBillLevel)
+				.containsExactly(BillLevel.LOCAL, BillLevel.STATE, BillLevel.FEDERAL);
+	}
+
+	@Test
+	void preferredCategoriesAreSampledMoreOften() {
+		// One bill in five is in the preferred category
+		seed("STATE", 100, 20);
+
+		double unweighted = preferredShare(1.0);
+		double weighted = preferredShare(3.0);
+
+		assertThat(unweighted).isBetween(0.1, 0.3);
+		assertThat(weighted).isGreaterThan(unweighted + 0.1);
+	}
+
+	@Test
+	void rotationIsStableForAnOffsetAndMovesWithIt() {
+		seed("STATE", 50, 0);
+
+		List<Integer> first = billIds(legislationRepository.sampleFeed(ZIPCODE, STATE, 10, true, 12345, NO_PREFERENCE, 3.0));
+		List<Integer> again = billIds(legislationRepository.sampleFeed(ZIPCODE, STATE, 10, true, 12345, NO_PREFERENCE, 3.0));
+		List<Integer> next = billIds(legislationRepository.sampleFeed(ZIPCODE, STATE, 10, true,
+				Math.floorMod(2 * 0x9E3779B9L, 2147483647L), NO_PREFERENCE, 3.0));
+
+		assertThat(first).hasSize(10).isEqualTo(again);
+		assertThat(next).hasSize(10).isNotEqualTo(first);
+	}
+
+	// Share of preferred bills over many rotations, each drawing 10 of the 100 state bills
+	private double preferredShare(double preferenceWeight) {
+		long preferred = 0;
+		long total = 0;
+		for (long rotation = 1; rotation <= 100; rotation++) {
+			long offset = Math.floorMod(rotation * 0x9E3779B9L, 2147483647L);
+			List<Legislation> sample = legislationRepository.sampleFeed(ZIPCODE, STATE, 10, true, offset,
+					Set.of("Healthcare"), preferenceWeight);
+			preferred += sample.stream().filter(bill -> "Healthcare".equals(bill.getCategory())).count();
+			total += sample.size();
+		}
+		return (double) preferred / total;
+	}
+
+	// Inserts count bills at the given level, the first preferredCount of them in the Healthcare category
+	private void seed(String level, int count, int preferredCount) {
+		int firstId = 8900 + jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM legislation WHERE bill_id BETWEEN 8900 AND 8999", Integer.class);
+		for (int i = 0; i < count; i++) {
+			jdbcTemplate.update("INSERT INTO legislation (bill_id, title, bill_level, state, zipcode, category) " +
+							"VALUES (?, ?, ?, ?, ?, ?)",
+					level.equals("LOCAL") ? null : firstId + i, level + " bill " + i, level,
+					level.equals("FEDERAL") ? "US" : STATE, level.equals("LOCAL") ? ZIPCODE : null,
+					i < preferredCount ? "Healthcare" : "Other");
+		}
+	}
+
+	private static Map<BillLevel, Long> countByLevel(List<Legislation> bills) {
+		return bills.stream().collect(Collectors.groupingBy(Legislation::getBillLevel, Collectors.counting()));
+	}
+
+	private static List<Integer> billIds(List<Legislation> bills) {
+		return bills.stream().map(Legislation::getBill_id).toList();
+	}
+}
@@ -0,0 +1,105 @@
+package com.yoursay.backend.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// ON CONFLICT ... DO UPDATE is Postgres-only, so this runs against the Postgres container
+class VoteUpsertTests extends PostgresTestBase {
+
+	private static final String EMAIL = "upsert-race@test.com";
+	private static final int BILL_ID = 987654321;
+	private static final int WRITERS = 16;
+
+	@Autowired
+	private VotingRepository votingRepository;
+
+	@Autowired
+	private OpinionsRepository opinionsRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@AfterEach
+	void cleanUp() {
+		jdbcTemplate.update("DELETE FROM voting WHERE email = ?", EMAIL);
+		jdbcTemplate.update("DELETE FROM opinions WHERE email = ?", EMAIL);
+	}
+
+	@Test
+	void parallelVotesForTheSameBillLeaveOneRow() throws Exception {
+		race(i -> votingRepository.upsert(EMAIL, BILL_ID, i % 2 == 0));
+
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM voting WHERE email = ? AND bill_id = ?", Integer.class, EMAIL, BILL_ID))
+				.isEqualTo(1);
+	}
+
+	@Test
+	void parallelVotesEachReportTheVoteTheyReplaced() throws Exception {
+		AtomicInteger yesDelta = new AtomicInteger();
+		race(i -> {
+			boolean vote = i % 2 == 0;
+			Boolean previous = votingRepository.upsert(EMAIL, BILL_ID, vote);
+			// Summing every write's change must land on the final row, as the in-memory tallies do
+			yesDelta.addAndGet((vote ? 1 : 0) - (Boolean.TRUE.equals(previous) ? 1 : 0));
+		});
+
+		Boolean stored = jdbcTemplate.queryForObject(
+				"SELECT vote FROM voting WHERE email = ? AND bill_id = ?", Boolean.class, EMAIL, BILL_ID);
+		assertThat(yesDelta.get()).isEqualTo(stored ? 1 : 0);
+	}
+
+	@Test
+	void parallelOpinionsForTheSameBillLeaveOneRow() throws Exception {
+		race(i -> opinionsRepository.upsert(EMAIL, BILL_ID, "opinion " + i));
+
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM opinions WHERE email = ? AND bill_id = ?", Integer.class, EMAIL, BILL_ID))
+				.isEqualTo(1);
+	}
+
+	@Test
+	void laterUpsertReplacesTheEarlierValue() {
+		votingRepository.upsert(EMAIL, BILL_ID, true);
+		votingRepository.upsert(EMAIL, BILL_ID, false);
+
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT vote FROM voting WHERE email = ? AND bill_id = ?", Boolean.class, EMAIL, BILL_ID))
+				.isFalse();
+	}
+
+	private void race(IntConsumer write) throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(WRITERS);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < WRITERS; i++) {
+				int n = i;
+				futures.add(pool.submit(() -> {
+					start.await();
+					write.accept(n);
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+}
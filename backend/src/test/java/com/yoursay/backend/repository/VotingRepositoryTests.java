@@ -0,0 +1,48 @@
+package com.yoursay.backend.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class VotingRepositoryTests {
+
+	@Autowired
+	private VotingRepository votingRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@AfterEach
+	void cleanUp() {
+		jdbcTemplate.update("DELETE FROM voting WHERE email LIKE '%@tally.test'");
+	}
+
+	@Test
+	void talliesYesAndNoVotesPerBill() {
+		jdbcTemplate.update("INSERT INTO voting (email, bill_id, vote) VALUES " +
+				"('a@tally.test', 11, true), ('b@tally.test', 11, false), ('c@tally.test', 11, true), " +
+				"('a@tally.test', 12, false), ('b@tally.test', 12, NULL)");
+
+		List<VotingRepository.BillTallyRow> rows = votingRepository.tallyAllBills();
+
+		assertThat(rows).filteredOn(row -> row.getBillId() == 11).singleElement()
+				.satisfies(row -> {
+					assertThat(row.getYesCount()).isEqualTo(2);
+					assertThat(row.getNoCount()).isEqualTo(1);
+				});
+		assertThat(rows).filteredOn(row -> row.getBillId() == 12).singleElement()
+				.satisfies(row -> {
+					assertThat(row.getYesCount()).isZero();
+					assertThat(row.getNoCount()).isEqualTo(1);
+				});
+	}
+}
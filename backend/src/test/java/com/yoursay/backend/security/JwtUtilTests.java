@@ -0,0 +1,62 @@
+package com.yoursay.backend.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtUtilTests {
+
+    private static final String SECRET = "testsecretkeytestsecretkeytestsecretkey";
+
+    @Test
+    void verifiesTokensItIssued() {
+        JwtUtil jwtUtil = jwtUtil(SECRET, 60_000);
+        String token = jwtUtil.generateToken("a@test.com");
+
+        assertThat(jwtUtil.verify(token).getSubject()).isEqualTo("a@test.com");
+        // Second lookup is served from the verified-token cache
+        assertThat(jwtUtil.getEmailFromToken(token)).isEqualTo("a@test.com");
+    }
+
+    @Test
+    void rejectsForgedAndMalformedTokens() {
+        JwtUtil jwtUtil = jwtUtil(SECRET, 60_000);
+        String forged = jwtUtil(SECRET.replace('t', 'x'), 60_000).generateToken("a@test.com");
+        String valid = jwtUtil.generateToken("a@test.com");
+        String tampered = valid.substring(0, valid.length() - 2) + (valid.endsWith("A") ? "BB" : "AA");
+
+        assertThat(jwtUtil.verify(forged)).isNull();
+        assertThat(jwtUtil.verify(tampered)).isNull();
+        assertThat(jwtUtil.getEmailFromToken("not-a-token")).isNull();
+    }
+
+    @Test
+    void cachedTokensStopVerifyingOnceExpired() throws InterruptedException {
+        JwtUtil jwtUtil = jwtUtil(SECRET, 60_000);
+        String shortLived = Jwts.builder()
+                .setSubject("a@test.com")
+                .setExpiration(new Date(System.currentTimeMillis() + 1500))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertThat(jwtUtil.getEmailFromToken(shortLived)).isEqualTo("a@test.com");
+        Thread.sleep(2000);
+
+        assertThat(jwtUtil.getEmailFromToken(shortLived)).isNull();
+    }
+
+    private static JwtUtil jwtUtil(String secret, int expirationMs) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", secret);
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationMs", expirationMs);
+        ReflectionTestUtils.setField(jwtUtil, "verifiedCacheSize", 100L);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+}
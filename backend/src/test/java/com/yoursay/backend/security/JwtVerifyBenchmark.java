@@ -0,0 +1,169 @@
+package com.yoursay.backend.security;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.security.Key;
+import java.util.ArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Compares token checks as they are now, served from JwtUtil's verified-token cache, with the code they replaced:
+// validateToken followed by getEmailFromToken, each building a key and parser and parsing the token again. Both are
+// measured on their own and inside the authentication filter. Requests pick at random from activeUsers live tokens.
+// Not run by the build; start it with main() from the IDE or
+// java -cp target/test-classes:<test classpath> com.yoursay.backend.security.JwtVerifyBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class JwtVerifyBenchmark {
+    private static final String SECRET = "benchmarksecretkeybenchmarksecretkey";
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> {
+    };
+
+    @Param({"100", "10000"})
+    private int activeUsers;
+
+    private JwtUtil jwtUtil;
+    private JwtAuthenticationFilter filter;
+    private LegacyJwtAuthenticationFilter legacyFilter;
+    private String[] tokens;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationMs", 3_600_000);
+        ReflectionTestUtils.setField(jwtUtil, "verifiedCacheSize", 10_000L);
+        jwtUtil.init();
+        filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+        legacyFilter = new LegacyJwtAuthenticationFilter();
+
+        tokens = new String[activeUsers];
+        for (int i = 0; i < activeUsers; i++) {
+            tokens[i] = jwtUtil.generateToken("user" + i + "@test.com");
+        }
+    }
+
+    @Benchmark
+    public String cached() {
+        return jwtUtil.getEmailFromToken(nextToken());
+    }
+
+    @Benchmark
+    public String legacy() {
+        String token = nextToken();
+        return legacyValidateToken(token) ? legacyGetEmailFromToken(token) : null;
+    }
+
+    @Benchmark
+    public Object cachedFilter() throws Exception {
+        return authenticate(filter);
+    }
+
+    @Benchmark
+    public Object legacyFilter() throws Exception {
+        return authenticate(legacyFilter);
+    }
+
+    private Object authenticate(OncePerRequestFilter authenticationFilter) throws Exception {
+        // A fresh request each time, since OncePerRequestFilter skips requests it has already seen
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/legislation/federal");
+        request.addHeader("Authorization", "Bearer " + nextToken());
+        try {
+            authenticationFilter.doFilter(request, new MockHttpServletResponse(), NO_OP_CHAIN);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private String nextToken() {
+        return tokens[ThreadLocalRandom.current().nextInt(tokens.length)];
+    }
+
+    // JwtUtil.validateToken and getEmailFromToken as they were before the verified-token cache, kept as the baseline
+    private static boolean legacyValidateToken(String token) {
+        try {
+            Key key = Keys.hmacShaKeyFor(SECRET.getBytes());
+            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+            return true;
+        } catch (JwtException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static String legacyGetEmailFromToken(String token) {
+        Key key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        return Jwts.parserBuilder().setSigningKey(key).build()
+                .parseClaimsJws(token).getBody().getSubject();
+    }
+
+    // JwtAuthenticationFilter as it was before, on top of the legacy token checks
+    private static class LegacyJwtAuthenticationFilter extends OncePerRequestFilter {
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+                throws ServletException, IOException {
+            try {
+                String header = request.getHeader("Authorization");
+                String token = null;
+                String email = null;
+
+                if (header != null && header.startsWith("Bearer ")) {
+                    token = header.substring(7);
+                    if (legacyValidateToken(token)) {
+                        email = legacyGetEmailFromToken(token);
+                    }
+                }
+
+                if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                    UsernamePasswordAuthenticationToken auth =
+                        new UsernamePasswordAuthenticationToken(email, null, new ArrayList<>());
+                    auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(auth);
+                }
+            } catch (Exception e) {
+                logger.error("Cannot set user authentication: {}", e);
+            }
+
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtVerifyBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,144 @@
+package com.yoursay.backend.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Login storm against a running server with production bcrypt cost: measures login p50/p99 and how much the storm
+// slows an unrelated endpoint. Not part of the regular build (the name does not match *Tests); run it with
+// mvn test -Dtest=LoginLoadHarness -Dsurefire.failIfNoSpecifiedTests=false
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "ratelimit.enabled=false",
+        "auth.password.bcrypt-strength=10"
+})
+@ActiveProfiles("test")
+class LoginLoadHarness {
+
+    private static final String EMAIL = "load-harness@test.com";
+    private static final String PASSWORD = "correct horse battery staple";
+    private static final int LOGIN_CLIENTS = 64;
+    private static final int PING_CLIENTS = 4;
+    private static final Duration STORM = Duration.ofSeconds(10);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    @AfterEach
+    void deleteUser() {
+        jdbcTemplate.update("DELETE FROM users WHERE email = ?", EMAIL);
+    }
+
+    @Test
+    void loginStormKeepsOtherEndpointsResponsive() throws Exception {
+        jdbcTemplate.update("INSERT INTO users (email, password, zipcode, state) VALUES (?, ?, '48315', 'MI')",
+                EMAIL, passwordHasher.hash(PASSWORD).join());
+
+        List<Long> idlePing = run(PING_CLIENTS, Duration.ofSeconds(2), this::ping, new ConcurrentHashMap<>());
+
+        Map<Integer, AtomicInteger> loginStatuses = new ConcurrentHashMap<>();
+        Map<Integer, AtomicInteger> pingStatuses = new ConcurrentHashMap<>();
+        ExecutorService storm = Executors.newSingleThreadExecutor();
+        List<Long> loginLatencies;
+        List<Long> loadedPing;
+        try {
+            var logins = storm.submit(() -> run(LOGIN_CLIENTS, STORM, this::login, loginStatuses));
+            loadedPing = run(PING_CLIENTS, STORM, this::ping, pingStatuses);
+            loginLatencies = logins.get();
+        } finally {
+            storm.shutdownNow();
+        }
+
+        System.out.printf("login: %d requests, statuses %s, p50 %d ms, p99 %d ms%n",
+                loginLatencies.size(), loginStatuses, percentile(loginLatencies, 50), percentile(loginLatencies, 99));
+        System.out.printf("ping idle: p50 %d ms, p99 %d ms; ping under login load: p50 %d ms, p99 %d ms%n",
+                percentile(idlePing, 50), percentile(idlePing, 99), percentile(loadedPing, 50), percentile(loadedPing, 99));
+
+        // Saturated logins are shed with 503, never queued into timeouts or failed with 500
+        assertThat(loginStatuses.keySet()).isSubsetOf(200, 503);
+        assertThat(loginStatuses.get(200)).isNotNull();
+        assertThat(pingStatuses.keySet()).containsOnly(200);
+        assertThat(percentile(loadedPing, 99)).isLessThan(Math.max(250, 10 * percentile(idlePing, 99)));
+    }
+
+    private interface Call {
+        int send() throws Exception;
+    }
+
+    // Runs clients back-to-back calls for the given time and returns every call's latency in milliseconds
+    private static List<Long> run(int clients, Duration duration, Call call, Map<Integer, AtomicInteger> statuses)
+            throws InterruptedException {
+        List<Long> latencies = new CopyOnWriteArrayList<>();
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        for (int i = 0; i < clients; i++) {
+            pool.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    int status;
+                    try {
+                        status = call.send();
+                    } catch (Exception e) {
+                        status = -1;
+                    }
+                    latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                    statuses.computeIfAbsent(status, s -> new AtomicInteger()).incrementAndGet();
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(duration.toSeconds() + 30, TimeUnit.SECONDS);
+        return latencies;
+    }
+
+    private int login() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/users/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"" + EMAIL + "\",\"password\":\"" + PASSWORD + "\"}"))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private int ping() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/ping")).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static long percentile(List<Long> latencies, int percentile) {
+        if (latencies.isEmpty()) {
+            return 0;
+        }
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        return sorted.get(Math.min(sorted.size() - 1, (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1));
+    }
+}
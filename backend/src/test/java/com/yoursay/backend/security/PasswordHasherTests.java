@@ -0,0 +1,52 @@
+package com.yoursay.backend.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHasherTests {
+
+    @Test
+    void checksHashedPasswordsAndUpgradesMatchingPlaintextOnes() {
+        PasswordHasher hasher = new PasswordHasher(new SimpleMeterRegistry(), 4, 1, 10);
+        String hash = hasher.hash("hunter2").join();
+
+        assertThat(PasswordHasher.isHashed(hash)).isTrue();
+        assertThat(hasher.verify("hunter2", hash).join()).isEqualTo(new PasswordHasher.PasswordCheck(true, null));
+        assertThat(hasher.verify("wrong", hash).join().matches()).isFalse();
+
+        PasswordHasher.PasswordCheck legacy = hasher.verify("hunter2", "hunter2").join();
+        assertThat(legacy.matches()).isTrue();
+        assertThat(new BCryptPasswordEncoder().matches("hunter2", legacy.upgradedHash())).isTrue();
+        assertThat(hasher.verify("wrong", "hunter2").join()).isEqualTo(new PasswordHasher.PasswordCheck(false, null));
+
+        // Unknown account
+        assertThat(hasher.verify("hunter2", null).join().matches()).isFalse();
+        hasher.shutdown();
+    }
+
+    @Test
+    void rejectsImmediatelyOnceThePoolAndQueueAreFull() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        // Strength 14 keeps the single worker busy well past the time it takes to fill the queue
+        PasswordHasher hasher = new PasswordHasher(meterRegistry, 14, 1, 1);
+        CompletableFuture<String> running = hasher.hash("a");
+        CompletableFuture<String> queued = hasher.hash("b");
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> hasher.verify("c", "x"))
+                .isInstanceOf(RejectedExecutionException.class);
+        assertThat(System.nanoTime() - start).isLessThan(50_000_000L);
+        assertThat(meterRegistry.counter("auth.password.rejected").count()).isEqualTo(1.0);
+
+        hasher.shutdown();
+        running.cancel(true);
+        queued.cancel(true);
+    }
+}
@@ -0,0 +1,80 @@
+package com.yoursay.backend.security;
+
+import com.yoursay.backend.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RefreshTokenStoreTests {
+
+    @Autowired
+    private RefreshTokenStore refreshTokenStore;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM refresh_token");
+    }
+
+    @Test
+    void rotatesTokensAndStoresOnlyTheirHashes() {
+        String first = refreshTokenStore.issue("a@test.com");
+
+        Optional<RefreshTokenStore.Rotation> rotation = refreshTokenStore.rotate(first);
+        assertThat(rotation).isPresent();
+        assertThat(rotation.get().email()).isEqualTo("a@test.com");
+        assertThat(rotation.get().refreshToken()).isNotEqualTo(first);
+
+        assertThat(refreshTokenStore.rotate(rotation.get().refreshToken())).isPresent();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM refresh_token WHERE token_hash = ?", Integer.class, first)).isZero();
+        assertThat(refreshTokenStore.rotate("never-issued")).isEmpty();
+    }
+
+    @Test
+    void replayingARotatedTokenRevokesTheWholeLogin() {
+        String first = refreshTokenStore.issue("a@test.com");
+        String second = refreshTokenStore.rotate(first).orElseThrow().refreshToken();
+        String otherLogin = refreshTokenStore.issue("a@test.com");
+
+        assertThat(refreshTokenStore.rotate(first)).isEmpty();
+        assertThat(refreshTokenStore.rotate(second)).isEmpty();
+        // Other logins of the same account are separate families
+        assertThat(refreshTokenStore.rotate(otherLogin)).isPresent();
+    }
+
+    @Test
+    void sessionsMissingFromMemoryAreLoadedFromTheTable() {
+        String first = refreshTokenStore.issue("a@test.com");
+        String second = refreshTokenStore.rotate(first).orElseThrow().refreshToken();
+
+        // A store with nothing in memory, as after a restart or on another instance
+        RefreshTokenStore cold = new RefreshTokenStore(refreshTokenRepository, new SimpleMeterRegistry(), 30, 100);
+        assertThat(cold.rotate(first)).isEmpty();
+        assertThat(cold.rotate(second)).isEmpty();
+    }
+
+    @Test
+    void expiredTokensArePurgedAndRejected() {
+        RefreshTokenStore expiring = new RefreshTokenStore(refreshTokenRepository, new SimpleMeterRegistry(), 0, 100);
+        String token = expiring.issue("expired@test.com");
+
+        assertThat(expiring.rotate(token)).isEmpty();
+        expiring.purgeExpired();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM refresh_token WHERE email = 'expired@test.com'", Integer.class)).isZero();
+    }
+}
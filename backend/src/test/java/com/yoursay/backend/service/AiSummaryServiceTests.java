@@ -0,0 +1,156 @@
+package com.yoursay.backend.service;
+
+import com.yoursay.backend.domain.AiSummary;
+import com.yoursay.backend.domain.BillLevel;
+import com.yoursay.backend.domain.Legislation;
+import com.yoursay.backend.domain.LegislationChangedEvent;
+import com.yoursay.backend.domain.SummaryResult;
+import com.yoursay.backend.repository.AiSummaryRepository;
+import com.yoursay.backend.repository.LegislationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AiSummaryServiceTests {
+
+    private final SummaryModelClient modelClient = mock(SummaryModelClient.class);
+    private final AiSummaryRepository aiSummaryRepository = mock(AiSummaryRepository.class);
+    private final LegislationRepository legislationRepository = mock(LegislationRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AiSummaryService service =
+            new AiSummaryService(modelClient, aiSummaryRepository, legislationRepository, meterRegistry, 100, 1, 1, 200);
+
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+    }
+
+    @Test
+    void concurrentRequestsForAnUncachedBillShareOneModelCall() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(aiSummaryRepository.findByStateAndBillId("MI", "42")).thenReturn(Optional.empty());
+        when(modelClient.summarizeBill("MI", "42", "Water Act")).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return "Funds lead pipe replacement.";
+        });
+
+        List<CompletableFuture<String>> requests = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            requests.add(service.summarize(i % 2 == 0 ? "MI" : "mi", "42", "Water Act"));
+        }
+        release.countDown();
+
+        for (CompletableFuture<String> request : requests) {
+            assertThat(request.get(5, TimeUnit.SECONDS)).isEqualTo("Funds lead pipe replacement.");
+        }
+        verify(modelClient, times(1)).summarizeBill(anyString(), anyString(), anyString());
+        verify(aiSummaryRepository).upsert("MI", "42", "Funds lead pipe replacement.");
+    }
+
+    @Test
+    void storedSummariesAreServedWithoutCallingTheModel() {
+        AiSummary stored = new AiSummary();
+        stored.setSummary("Already summarized.");
+        when(aiSummaryRepository.findByStateAndBillId("US", "7")).thenReturn(Optional.of(stored));
+
+        assertThat(service.summarize("US", "7", "Budget").join()).isEqualTo("Already summarized.");
+        verify(modelClient, never()).summarizeBill(any(), any(), any());
+    }
+
+    @Test
+    void changedBillsAreSummarizedAgain() {
+        when(aiSummaryRepository.findByStateAndBillId("MI", "42")).thenReturn(Optional.empty());
+        when(modelClient.summarizeBill("MI", "42", "Water Act")).thenReturn("First version.", "Amended version.");
+
+        assertThat(service.summarize("MI", "42", "Water Act").join()).isEqualTo("First version.");
+        assertThat(service.summarize("MI", "42", "Water Act").join()).isEqualTo("First version.");
+
+        service.onLegislationChanged(new LegislationChangedEvent(BillLevel.STATE, "MI", List.of(42)));
+
+        assertThat(service.summarize("MI", "42", "Water Act").join()).isEqualTo("Amended version.");
+        verify(aiSummaryRepository).deleteByBillIds(Set.of("42"));
+    }
+
+    @Test
+    void slowModelCallsFallBackToTheTruncatedDescription() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(aiSummaryRepository.findByStateAndBillId("MI", "42")).thenReturn(Optional.empty());
+        when(modelClient.summarizeBill("MI", "42", "Water Act")).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return "Funds lead pipe replacement.";
+        });
+        when(legislationRepository.findByBillId(42)).thenReturn(Optional.of(bill(42, "MI", "Water Act", "word ".repeat(200))));
+
+        SummaryResult result = service.summarizeForReader("42").orElseThrow().get(5, TimeUnit.SECONDS);
+
+        assertThat(result.isFallback()).isTrue();
+        assertThat(result.getText()).hasSizeLessThanOrEqualTo(403).endsWith("...");
+        assertThat(meterRegistry.get("ai.summary.fallback").tag("reason", "timeout").counter().count()).isEqualTo(1);
+
+        // The model call was not cancelled and fills the cache for the next reader
+        release.countDown();
+        assertThat(service.summarize("MI", "42", "Water Act").get(5, TimeUnit.SECONDS)).isEqualTo("Funds lead pipe replacement.");
+        assertThat(service.summarizeForReader("42").orElseThrow().get(5, TimeUnit.SECONDS).isFallback()).isFalse();
+    }
+
+    @Test
+    void saturatedModelQueueFallsBackImmediately() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(aiSummaryRepository.findByStateAndBillId(anyString(), anyString())).thenReturn(Optional.empty());
+        when(modelClient.summarizeBill(anyString(), anyString(), anyString())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return "Summary.";
+        });
+        when(legislationRepository.findByBillId(3)).thenReturn(Optional.of(bill(3, "MI", "Third", null)));
+
+        // One running and one queued fill the model pool
+        service.summarize("MI", "1", "First");
+        service.summarize("MI", "2", "Second");
+        SummaryResult result = service.summarizeForReader("3").orElseThrow().get(1, TimeUnit.SECONDS);
+        release.countDown();
+
+        assertThat(result.isFallback()).isTrue();
+        assertThat(result.getText()).isEqualTo("Third");
+        assertThat(meterRegistry.get("ai.summary.fallback").tag("reason", "saturated").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void readersGetTheStoredTitleAndStateSummarizedAndUnknownBillsAreRejected() {
+        when(legislationRepository.findByBillId(42)).thenReturn(Optional.of(bill(42, "MI", "Water Act", "Pipes.")));
+        when(legislationRepository.findByBillId(43)).thenReturn(Optional.empty());
+        when(aiSummaryRepository.findByStateAndBillId("MI", "42")).thenReturn(Optional.empty());
+        when(modelClient.summarizeBill("MI", "42", "Water Act")).thenReturn("Funds lead pipe replacement.");
+
+        assertThat(service.summarizeForReader("42").orElseThrow().join().getText()).isEqualTo("Funds lead pipe replacement.");
+        assertThat(service.summarizeForReader("43")).isEmpty();
+        assertThat(service.summarizeForReader("not-a-bill")).isEmpty();
+        verify(modelClient, times(1)).summarizeBill(anyString(), anyString(), anyString());
+        verify(aiSummaryRepository, times(1)).upsert(anyString(), anyString(), anyString());
+    }
+
+    private static Legislation bill(int billId, String state, String title, String description) {
+        Legislation bill = new Legislation();
+        bill.setBill_id(billId);
+        bill.setState(state);
+        bill.setTitle(title);
+        bill.setDescription(description);
+        return bill;
+    }
+}
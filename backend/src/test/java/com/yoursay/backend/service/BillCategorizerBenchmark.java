@@ -0,0 +1,81 @@
+package com.yoursay.backend.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Compares the automaton in BillCategorizer with the contains() loop it replaced, over a mix of real-looking
+// descriptions. Not run by the build; start it with main() from the IDE or
+// java -cp target/test-classes:<test classpath> com.yoursay.backend.service.BillCategorizerBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BillCategorizerBenchmark {
+    private static final String[] DESCRIPTIONS = {
+            "Expands Medicaid coverage for rural hospital patients and funds telemedicine pilots in underserved counties",
+            "Raises the income tax deduction for each taxpayer filing jointly and adjusts withholding brackets",
+            "Funds bridge and highway repair across the state and creates a stormwater resilience grant program",
+            "Relating to the regulation of concealed firearm licenses and the sale of ammunition at gun shows",
+            "Requires school districts to provide free lunch to every elementary and secondary student",
+            "An act relating to the designation of the official state pickle",
+            "Establishes a renewable energy portfolio standard and sets carbon emission targets for utilities",
+            "Prohibits discrimination in housing and employment on the basis of gender identity or disability",
+    };
+
+    private final BillCategorizer categorizer = new BillCategorizer();
+
+    @Benchmark
+    public void automaton(Blackhole blackhole) {
+        for (String description : DESCRIPTIONS) {
+            blackhole.consume(categorizer.categorize(description));
+        }
+    }
+
+    @Benchmark
+    public void containsLoop(Blackhole blackhole) {
+        for (String description : DESCRIPTIONS) {
+            blackhole.consume(containsLoop(description));
+        }
+    }
+
+    // The categorizer as it was before the automaton, kept as the baseline
+    private static String containsLoop(String description) {
+        if (description == null || description.isEmpty()) return "Other";
+        String descLower = description.toLowerCase();
+        String bestCategory = "Other";
+        int maxMatches = 0;
+        for (Map.Entry<String, String[]> entry : BillCategorizer.TOPIC_KEYWORDS.entrySet()) {
+            int matches = 0;
+            for (String keyword : entry.getValue()) {
+                if (descLower.contains(keyword.toLowerCase())) {
+                    matches++;
+                }
+            }
+            if (matches > maxMatches) {
+                maxMatches = matches;
+                bestCategory = entry.getKey();
+            }
+        }
+        return bestCategory;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BillCategorizerBenchmark.class.getSimpleName()).build()).run();
+    }
+}
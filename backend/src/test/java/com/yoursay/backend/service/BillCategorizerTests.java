@@ -0,0 +1,37 @@
+package com.yoursay.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BillCategorizerTests {
+
+    private final BillCategorizer categorizer = new BillCategorizer();
+
+    @Test
+    void picksTheTopicWithTheMostDistinctKeywords() {
+        assertThat(categorizer.categorize("Expands Medicaid coverage for rural hospital patients")).isEqualTo("Healthcare");
+        assertThat(categorizer.categorize("Raises the income tax deduction for each taxpayer")).isEqualTo("Taxes");
+        assertThat(categorizer.categorize("Funds bridge and highway repair across the state")).isEqualTo("Infrastructure");
+    }
+
+    @Test
+    void matchesOnWordBoundariesOnly() {
+        // "law" must not match inside "lawn", nor "gun" inside "begun"
+        assertThat(categorizer.categorize("Regulates lawn mowing hours; work has begun")).isEqualTo("Other");
+        assertThat(categorizer.categorize("Gun law")).isEqualTo("Gun Control");
+    }
+
+    @Test
+    void acceptsPluralsAndIgnoresCase() {
+        assertThat(categorizer.categorize("SCHOOLS, Teachers and Students")).isEqualTo("Education");
+        assertThat(categorizer.categorize("Property taxes")).isEqualTo("Taxes");
+    }
+
+    @Test
+    void defaultsToOther() {
+        assertThat(categorizer.categorize(null)).isEqualTo("Other");
+        assertThat(categorizer.categorize("")).isEqualTo("Other");
+        assertThat(categorizer.categorize("An act relating to pickles")).isEqualTo("Other");
+    }
+}
@@ -0,0 +1,54 @@
+package com.yoursay.backend.service;
+
+import com.yoursay.backend.domain.BillLevel;
+import com.yoursay.backend.domain.LegislationPage;
+import com.yoursay.backend.domain.LegislationSummary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class FetchLegislationServiceTests {
+
+    @Autowired
+    private FetchLegislationService fetchLegislationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM legislation WHERE state = 'ZZ'");
+    }
+
+    @Test
+    void pagesThroughEveryBillWithUndatedBillsLast() {
+        jdbcTemplate.update("INSERT INTO legislation (bill_id, title, bill_level, state, bill_date) VALUES " +
+                "(9101, 'Old', 'STATE', 'ZZ', DATE '2024-01-01'), " +
+                "(9102, 'Undated one', 'STATE', 'ZZ', NULL), " +
+                "(9103, 'New', 'STATE', 'ZZ', DATE '2024-03-01'), " +
+                "(9104, 'Same day', 'STATE', 'ZZ', DATE '2024-03-01'), " +
+                "(9105, 'Undated two', 'STATE', 'ZZ', NULL)");
+
+        List<Integer> billIds = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            LegislationPage page = fetchLegislationService.fetchLegislationPage(BillLevel.STATE, "ZZ", null, cursor, 2);
+            page.getItems().stream().map(LegislationSummary::getBill_id).forEach(billIds::add);
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null && pages < 10);
+
+        assertThat(billIds).containsExactly(9104, 9103, 9101, 9105, 9102);
+    }
+}
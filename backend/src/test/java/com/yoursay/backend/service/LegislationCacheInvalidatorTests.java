@@ -0,0 +1,73 @@
+package com.yoursay.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.yoursay.backend.config.CacheConfig;
+import com.yoursay.backend.domain.BillLevel;
+import com.yoursay.backend.domain.Legislation;
+import com.yoursay.backend.domain.LegislationChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LegislationCacheInvalidatorTests {
+
+    @Autowired
+    private FetchLegislationService fetchLegislationService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM legislation WHERE state = 'ZY'");
+        cacheManager.getCache(CacheConfig.LEGISLATION_CACHE).clear();
+    }
+
+    @Test
+    void feedIsServedFromTheCacheUntilTheImportReportsAChange() {
+        jdbcTemplate.update("INSERT INTO legislation (bill_id, title, bill_level, state) VALUES (9301, 'First', 'STATE', 'ZY')");
+        assertThat(billIds(fetchLegislationService.fetchStateLegislation("ZY"))).containsExactly(9301);
+
+        jdbcTemplate.update("INSERT INTO legislation (bill_id, title, bill_level, state) VALUES (9302, 'Second', 'STATE', 'ZY')");
+        assertThat(billIds(fetchLegislationService.fetchStateLegislation("ZY"))).containsExactly(9301);
+
+        // Another feed changing leaves this one cached
+        eventPublisher.publishEvent(new LegislationChangedEvent(BillLevel.STATE, "ZX", List.of(1)));
+        assertThat(billIds(fetchLegislationService.fetchStateLegislation("ZY"))).containsExactly(9301);
+
+        eventPublisher.publishEvent(new LegislationChangedEvent(BillLevel.STATE, "ZY", List.of(9302)));
+        assertThat(billIds(fetchLegislationService.fetchStateLegislation("ZY"))).containsExactlyInAnyOrder(9301, 9302);
+    }
+
+    @Test
+    void cachedFeedsExpireSoRowsPutBackByAnEarlierReadAreNotServedUntilTheNextImport() {
+        Cache<?, ?> nativeCache = (Cache<?, ?>) cacheManager.getCache(CacheConfig.LEGISLATION_CACHE).getNativeCache();
+
+        assertThat(nativeCache.policy().expireAfterWrite()).hasValueSatisfying(expiration ->
+                assertThat(expiration.getExpiresAfter()).isPositive().isLessThanOrEqualTo(Duration.ofHours(1)));
+    }
+
+    private static List<Integer> billIds(List<Legislation> bills) {
+        return bills.stream().map(Legislation::getBill_id).toList();
+    }
+}
@@ -0,0 +1,141 @@
+package com.yoursay.backend.service;
+
+import com.sun.net.httpserver.HttpServer;
+import com.yoursay.backend.domain.BillLevel;
+import com.yoursay.backend.domain.ImportReport;
+import com.yoursay.backend.domain.Legislation;
+import com.yoursay.backend.repository.LegislationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LegislationImportServiceTests {
+
+    private HttpServer server;
+    private final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+    private LegislationRepository legislationRepository;
+    private final SummaryPregenerator summaryPregenerator = mock(SummaryPregenerator.class);
+
+    @BeforeEach
+    void startStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            String state = exchange.getRequestURI().getQuery().replaceAll(".*state=([A-Z]+).*", "$1");
+            int hit = hits.computeIfAbsent(state, s -> new AtomicInteger()).incrementAndGet();
+
+            int status = 200;
+            String body = state.equals("CA") ? largeMasterList(40) : masterList(state);
+            if (state.equals("TX") || (state.equals("OH") && hit == 1)) {
+                status = 503;
+                body = "unavailable";
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        });
+        server.start();
+
+        legislationRepository = mock(LegislationRepository.class);
+        when(legislationRepository.syncImportedState(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Legislation> bills = invocation.getArgument(1);
+            return bills.stream().map(Legislation::getBill_id).toList();
+        });
+    }
+
+    @AfterEach
+    void stopStubServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void importsStatesConcurrentlyAndReportsFailures() {
+        ImportReport report = importService(List.of("MI", "US", "TX", "OH")).fetchMasterList();
+
+        assertThat(report.getSucceeded()).isEqualTo(3);
+        assertThat(report.getFailed()).isEqualTo(1);
+        assertThat(report.getStates()).extracting(ImportReport.StateResult::getState)
+                .containsExactly("MI", "OH", "TX", "US");
+        ImportReport.StateResult texas = report.getStates().get(2);
+        assertThat(texas.isSuccess()).isFalse();
+        assertThat(texas.getError()).contains("503");
+
+        // TX is retried up to the attempt limit, OH recovers on its second attempt
+        assertThat(hits.get("TX")).hasValue(3);
+        assertThat(hits.get("OH")).hasValue(2);
+        verify(legislationRepository, never()).syncImportedState(eq("TX"), anyList());
+    }
+
+    @Test
+    void skipsExcludedTitlesAndTagsFederalBills() {
+        importService(List.of("US")).fetchMasterList();
+
+        verify(legislationRepository).syncImportedState(eq("US"), argThat(bills -> bills.size() == 2
+                && bills.stream().allMatch(bill -> bill.getBillLevel() == BillLevel.FEDERAL)
+                && bills.stream().noneMatch(bill -> bill.getTitle().contains("Day"))));
+        verify(summaryPregenerator).enqueue(argThat(bills -> bills.size() == 2));
+    }
+
+    @Test
+    void keepsOnlyTheNewestBillsOfLargeMasterLists() {
+        importService(List.of("CA")).fetchMasterList();
+
+        verify(legislationRepository).syncImportedState(eq("CA"), argThat(bills -> bills.size() == 25
+                && bills.get(0).getBill_id() == 1039
+                && bills.get(24).getBill_id() == 1015));
+    }
+
+    private LegislationImportService importService(List<String> states) {
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+        LegiScanClient client = new LegiScanClient(baseUrl, "test-key", 3, 10, 100);
+        TitleExclusionFilter exclusionFilter = new TitleExclusionFilter(List.of("day", "memorial"), "", new SimpleMeterRegistry());
+        return new LegislationImportService(legislationRepository, client, new BillCategorizer(), exclusionFilter, event -> { }, summaryPregenerator, states, 4);
+    }
+
+    private static String masterList(String state) {
+        int base = Math.abs(state.hashCode()) * 10;
+        return """
+                {"status":"OK","masterlist":{
+                  "session":{"session_id":1,"session_name":"2025-2026 Regular Session"},
+                  "0":{"bill_id":%d,"number":"HB1","change_hash":"a1","status_date":"2025-01-10",
+                       "title":"Hospital Funding Act","description":"Funds rural hospital and clinic care"},
+                  "1":{"bill_id":%d,"number":"HR2","change_hash":"b2","status_date":"2025-01-11",
+                       "title":"Pickle Day","description":"Designates a day for pickles"},
+                  "2":{"bill_id":%d,"number":"SB3","change_hash":"c3","status_date":"2025-01-12",
+                       "title":"School Tax Credit","description":"Creates a tax credit for school supplies"}
+                }}
+                """.formatted(base + 1, base + 2, base + 3);
+    }
+
+    private static String largeMasterList(int size) {
+        StringBuilder body = new StringBuilder("{\"status\":\"OK\",\"masterlist\":{\"session\":{\"session_id\":2}");
+        for (int i = 0; i < size; i++) {
+            body.append(",\"").append(i).append("\":{\"bill_id\":").append(1000 + i)
+                    .append(",\"title\":\"Bill ").append(i)
+                    .append("\",\"description\":\"Road repair\",\"status_date\":\"2025-02-01\",\"change_hash\":\"h")
+                    .append(i).append("\",\"history\":[{\"action\":\"Introduced\"}]}");
+        }
+        return body.append("}}").toString();
+    }
+}
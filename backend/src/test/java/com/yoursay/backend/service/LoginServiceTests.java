@@ -0,0 +1,106 @@
+package com.yoursay.backend.service;
+
+import com.yoursay.backend.domain.LoginResponse;
+import com.yoursay.backend.domain.User;
+import com.yoursay.backend.repository.UserRepository;
+import com.yoursay.backend.security.JwtUtil;
+import com.yoursay.backend.security.PasswordHasher;
+import com.yoursay.backend.security.RefreshTokenStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LoginServiceTests {
+
+    private static final String EMAIL = "legacy@test.com";
+
+    @Autowired
+    private LoginService loginService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @AfterEach
+    void deleteUser() {
+        jdbcTemplate.update("DELETE FROM users WHERE email = ?", EMAIL);
+    }
+
+    @Test
+    void rehashesALegacyPlaintextPasswordOnTheFirstSuccessfulLogin() {
+        jdbcTemplate.update("INSERT INTO users (email, password, zipcode, state) VALUES (?, 'opensesame', '48315', 'MI')", EMAIL);
+
+        assertThat(loginService.checkPassword(EMAIL, "wrong").join().isAccessGranted()).isFalse();
+        assertThat(storedPassword()).isEqualTo("opensesame");
+
+        LoginResponse response = loginService.checkPassword(EMAIL, "opensesame").join();
+        assertThat(response.isAccessGranted()).isTrue();
+        assertThat(response.getAccessToken()).isNotBlank();
+        String stored = storedPassword();
+        assertThat(PasswordHasher.isHashed(stored)).isTrue();
+
+        // Later logins check against the hash, and the plaintext itself no longer works as a password value
+        assertThat(loginService.checkPassword(EMAIL, "opensesame").join().isAccessGranted()).isTrue();
+        assertThat(loginService.checkPassword(EMAIL, stored).join().isAccessGranted()).isFalse();
+    }
+
+    @Test
+    void unknownEmailsAreDenied() {
+        assertThat(loginService.checkPassword("nobody@test.com", "opensesame").join().isAccessGranted()).isFalse();
+    }
+
+    @Test
+    void databaseWritesAfterTheCheckRunOffTheHashingPool() {
+        UserRepository userRepository = mock(UserRepository.class);
+        RefreshTokenStore refreshTokenStore = mock(RefreshTokenStore.class);
+        PasswordHasher passwordHasher = new PasswordHasher(new SimpleMeterRegistry(), 4, 1, 4);
+        ExecutorService ioExecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, "io-test"));
+        try {
+            User user = new User();
+            user.setEmail(EMAIL);
+            user.setPassword("opensesame");
+            when(userRepository.findByEmail(EMAIL)).thenReturn(user);
+            List<String> writeThreads = new CopyOnWriteArrayList<>();
+            when(userRepository.updatePasswordIfUnchanged(eq(EMAIL), eq("opensesame"), anyString())).thenAnswer(invocation -> {
+                writeThreads.add(Thread.currentThread().getName());
+                return 1;
+            });
+            when(refreshTokenStore.issue(EMAIL)).thenAnswer(invocation -> {
+                writeThreads.add(Thread.currentThread().getName());
+                return "refresh";
+            });
+            LoginService service = new LoginService(userRepository, passwordHasher, refreshTokenStore, ioExecutor);
+            ReflectionTestUtils.setField(service, "jwtUtil", jwtUtil);
+
+            assertThat(service.checkPassword(EMAIL, "opensesame").join().isAccessGranted()).isTrue();
+            assertThat(writeThreads).containsExactly("io-test", "io-test");
+        } finally {
+            passwordHasher.shutdown();
+            ioExecutor.shutdownNow();
+        }
+    }
+
+    private String storedPassword() {
+        return jdbcTemplate.queryForObject("SELECT password FROM users WHERE email = ?", String.class, EMAIL);
+    }
+}
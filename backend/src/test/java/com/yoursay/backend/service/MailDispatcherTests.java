@@ -0,0 +1,113 @@
+package com.yoursay.backend.service;
+
+import com.yoursay.backend.domain.MailDeadLetter;
+import com.yoursay.backend.domain.OutboundEmail;
+import com.yoursay.backend.repository.MailDeadLetterRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+class MailDispatcherTests {
+
+    private final MailDeadLetterRepository deadLetters = mock(MailDeadLetterRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void retriesTransientFailuresUntilTheEmailGoesOut() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        List<String> delivered = new CopyOnWriteArrayList<>();
+        MailProvider flaky = email -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new IllegalStateException("provider unavailable");
+            }
+            delivered.add(email.getTo());
+        };
+        MailDispatcher dispatcher = new MailDispatcher(flaky, deadLetters, meterRegistry, 1, 10, 5, 10);
+
+        assertThat(dispatcher.enqueue(new OutboundEmail("a@test.com", "Code", "verification", "<p>1</p>"))).isTrue();
+
+        awaitPending(dispatcher);
+        assertThat(delivered).containsExactly("a@test.com");
+        assertThat(meterRegistry.counter("mail.retried").count()).isEqualTo(2.0);
+        verify(deadLetters, never()).save(any());
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void deadLettersEmailsThatFailEveryAttempt() throws InterruptedException {
+        MailProvider down = email -> {
+            throw new IllegalStateException("provider down");
+        };
+        MailDispatcher dispatcher = new MailDispatcher(down, deadLetters, meterRegistry, 1, 10, 3, 10);
+
+        dispatcher.enqueue(new OutboundEmail("a@test.com", "Code", "verification", "<p>Your code is 482913</p>"));
+
+        ArgumentCaptor<MailDeadLetter> saved = ArgumentCaptor.forClass(MailDeadLetter.class);
+        verify(deadLetters, timeout(5000)).save(saved.capture());
+        assertThat(saved.getValue().getRecipient()).isEqualTo("a@test.com");
+        assertThat(saved.getValue().getTemplate()).isEqualTo("verification");
+        assertThat(saved.getValue().getAttempts()).isEqualTo(3);
+        assertThat(saved.getValue().getLastError()).isEqualTo("provider down");
+        // The rendered body carried the code and is not kept
+        assertThat(saved.getValue()).extracting(MailDeadLetter::getRecipient, MailDeadLetter::getSubject, MailDeadLetter::getTemplate,
+                        MailDeadLetter::getLastError)
+                .noneMatch(field -> String.valueOf(field).contains("482913"));
+        awaitPending(dispatcher);
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void rejectsNewEmailsWhileTheQueueIsFull() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        MailProvider blocked = email -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        MailDispatcher dispatcher = new MailDispatcher(blocked, deadLetters, meterRegistry, 1, 2, 3, 10);
+
+        assertThat(dispatcher.enqueue(new OutboundEmail("a@test.com", "Code", "verification", "1"))).isTrue();
+        assertThat(dispatcher.enqueue(new OutboundEmail("b@test.com", "Code", "verification", "2"))).isTrue();
+        assertThat(dispatcher.enqueue(new OutboundEmail("c@test.com", "Code", "verification", "3"))).isFalse();
+        assertThat(meterRegistry.counter("mail.rejected").count()).isEqualTo(1.0);
+
+        release.countDown();
+        awaitPending(dispatcher);
+        assertThat(dispatcher.enqueue(new OutboundEmail("c@test.com", "Code", "verification", "3"))).isTrue();
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void rendersPrecompiledTemplates() {
+        MailTemplate template = MailTemplate.compile("<b>{{CODE}}</b> for {{ NAME }}{{MISSING}}!");
+
+        assertThat(template.render(Map.of("CODE", "012345", "NAME", "Ann"))).isEqualTo("<b>012345</b> for Ann!");
+        assertThat(MailTemplate.load("templates/verification_email_template.html").render(Map.of("CODE", "000042")))
+                .contains("000042")
+                .doesNotContain("{{");
+    }
+
+    private static void awaitPending(MailDispatcher dispatcher) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (dispatcher.pending() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(dispatcher.pending()).isZero();
+    }
+}
@@ -0,0 +1,61 @@
+package com.yoursay.backend.service;
+
+import com.yoursay.backend.domain.BillEngagement;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OpinionVoteServiceTests {
+
+    @Autowired
+    private OpinionVoteService opinionVoteService;
+
+    @Autowired
+    private VoteTallyService voteTallyService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM voting WHERE email LIKE '%@feed.test'");
+        jdbcTemplate.update("DELETE FROM opinions WHERE email LIKE '%@feed.test'");
+    }
+
+    @Test
+    void returnsTotalsAndTheCallersOwnVoteAndOpinionPerBill() {
+        jdbcTemplate.update("INSERT INTO voting (email, bill_id, vote) VALUES " +
+                "('me@feed.test', 21, true), ('other@feed.test', 21, false), ('other@feed.test', 22, true)");
+        jdbcTemplate.update("INSERT INTO opinions (email, bill_id, opinion) VALUES " +
+                "('me@feed.test', 21, 'Long overdue'), ('other@feed.test', 21, 'Too expensive'), ('other@feed.test', 22, 'Fine')");
+        voteTallyService.reconcile();
+
+        List<BillEngagement> page = opinionVoteService.getEngagement("me@feed.test", List.of(21, 22, 23, 21));
+
+        assertThat(page).extracting(BillEngagement::getBill_id).containsExactly(21, 22, 23);
+        BillEngagement first = page.get(0);
+        assertThat(first.getYes()).isEqualTo(1);
+        assertThat(first.getNo()).isEqualTo(1);
+        assertThat(first.getOpinionCount()).isEqualTo(2);
+        assertThat(first.getMyVote()).isTrue();
+        assertThat(first.getMyOpinion()).isEqualTo("Long overdue");
+
+        BillEngagement second = page.get(1);
+        assertThat(second.getYes()).isEqualTo(1);
+        assertThat(second.getOpinionCount()).isEqualTo(1);
+        assertThat(second.getMyVote()).isNull();
+        assertThat(second.getMyOpinion()).isNull();
+
+        BillEngagement unseen = page.get(2);
+        assertThat(unseen.getYes() + unseen.getNo() + unseen.getOpinionCount()).isZero();
+    }
+}
@@ -0,0 +1,124 @@
+package com.yoursay.backend.service;
+
+import com.yoursay.backend.domain.Legislation;
+import com.yoursay.backend.repository.AiSummaryRepository;
+import com.yoursay.backend.repository.LegislationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SummaryPregeneratorTests {
+
+    // Local stand-in for the model that records how many calls overlap
+    private static class FakeModelClient implements SummaryModelClient {
+        private final Set<String> summarized = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+
+        @Override
+        public String summarizeBill(String state, String bill_id, String title) {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            summarized.add(state + ":" + bill_id);
+            return "Summary of " + title;
+        }
+    }
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final FakeModelClient modelClient = new FakeModelClient();
+    private final AiSummaryRepository aiSummaryRepository = mock(AiSummaryRepository.class);
+    private final AiSummaryService aiSummaryService = new AiSummaryService(modelClient, aiSummaryRepository,
+            mock(LegislationRepository.class), meterRegistry, 100, 8, 100, 5000);
+
+    @AfterEach
+    void shutdown() {
+        aiSummaryService.shutdown();
+    }
+
+    @Test
+    void summarizesQueuedBillsWithBoundedConcurrency() throws InterruptedException {
+        when(aiSummaryRepository.findByStateAndBillId(anyString(), anyString())).thenReturn(Optional.empty());
+        SummaryPregenerator pregenerator = new SummaryPregenerator(aiSummaryService, meterRegistry, true, 2, 100, 60_000);
+
+        pregenerator.enqueue(bills(10));
+        await(() -> generated() == 10);
+
+        assertThat(modelClient.summarized).hasSize(10).contains("MI:1", "MI:10");
+        assertThat(modelClient.maxInFlight.get()).isLessThanOrEqualTo(2);
+        assertThat(generated()).isEqualTo(10);
+        // Readers now hit the cache instead of the model
+        assertThat(aiSummaryService.summarize("MI", "3", "Bill 3").join()).isEqualTo("Summary of Bill 3");
+        assertThat(modelClient.summarized).hasSize(10);
+        pregenerator.shutdown();
+    }
+
+    @Test
+    void dropsJobsBeyondTheQueueCapacity() throws InterruptedException {
+        when(aiSummaryRepository.findByStateAndBillId(anyString(), anyString())).thenReturn(Optional.empty());
+        SummaryPregenerator pregenerator = new SummaryPregenerator(aiSummaryService, meterRegistry, true, 1, 2, 60_000);
+
+        pregenerator.enqueue(bills(10));
+        await(() -> generated() + dropped() == 10);
+
+        assertThat(generated()).isBetween(2.0, 3.0);
+        pregenerator.shutdown();
+    }
+
+    @Test
+    void doesNothingWhenDisabled() {
+        SummaryPregenerator pregenerator = new SummaryPregenerator(aiSummaryService, meterRegistry, false, 2, 100, 60_000);
+
+        pregenerator.enqueue(bills(3));
+
+        assertThat(pregenerator.pending()).isZero();
+        assertThat(modelClient.summarized).isEmpty();
+        pregenerator.shutdown();
+    }
+
+    private double generated() {
+        return meterRegistry.get("ai.summary.pregenerate").tag("result", "generated").counter().count();
+    }
+
+    private double dropped() {
+        return meterRegistry.get("ai.summary.pregenerate").tag("result", "dropped").counter().count();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static List<Legislation> bills(int count) {
+        List<Legislation> bills = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            Legislation bill = new Legislation();
+            bill.setBill_id(i);
+            bill.setState("MI");
+            bill.setTitle("Bill " + i);
+            bills.add(bill);
+        }
+        return bills;
+    }
+}
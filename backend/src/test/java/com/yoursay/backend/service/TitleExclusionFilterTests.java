@@ -0,0 +1,52 @@
+package com.yoursay.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TitleExclusionFilterTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void matchesTermsCaseInsensitivelyAndCountsRejections() {
+        TitleExclusionFilter filter = new TitleExclusionFilter(List.of("Day", "day", "holiday", "Memorial"), "", meterRegistry);
+
+        assertThat(filter.isExcluded("Pickle DAY")).isTrue();
+        assertThat(filter.isExcluded("State holiday observance")).isTrue();
+        assertThat(filter.isExcluded("MEMORIAL highway designation")).isTrue();
+        assertThat(filter.isExcluded("Hospital Funding Act")).isFalse();
+
+        assertThat(rejected("day")).isEqualTo(1);
+        assertThat(rejected("holiday")).isEqualTo(1);
+        assertThat(rejected("memorial")).isEqualTo(1);
+    }
+
+    @Test
+    void picksUpNewTermsFromTheExclusionFile(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("excluded-titles.txt");
+        Files.writeString(file, "# ops additions\ntribute\n");
+        TitleExclusionFilter filter = new TitleExclusionFilter(List.of("day"), file.toString(), meterRegistry);
+
+        assertThat(filter.isExcluded("A tribute to volunteers")).isTrue();
+        assertThat(filter.isExcluded("Resolution of thanks")).isFalse();
+
+        Files.writeString(file, "tribute\nthanks\n");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+        filter.reloadIfChanged();
+
+        assertThat(filter.isExcluded("Resolution of thanks")).isTrue();
+    }
+
+    private double rejected(String term) {
+        return meterRegistry.get("legislation.import.titles.excluded").tag("term", term).counter().count();
+    }
+}
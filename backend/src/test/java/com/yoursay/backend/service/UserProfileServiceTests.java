@@ -0,0 +1,60 @@
+package com.yoursay.backend.service;
+
+import com.yoursay.backend.domain.UserProfile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UserProfileServiceTests {
+
+    private static final String EMAIL = "profile@test.com";
+
+    @Autowired
+    private UserProfileService userProfileService;
+
+    @Autowired
+    private PreferencesService preferencesService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void createUser() {
+        jdbcTemplate.update("INSERT INTO users (email, password, zipcode, state, preferences) VALUES (?, 'secret', '48315', 'MI', 'Education')", EMAIL);
+    }
+
+    @AfterEach
+    void deleteUser() {
+        preferencesService.updateUser(EMAIL, null, null);
+        jdbcTemplate.update("DELETE FROM users WHERE email = ?", EMAIL);
+    }
+
+    @Test
+    void servesRepeatedLookupsFromTheCacheUntilPreferencesChange() {
+        assertThat(userProfileService.getProfile(EMAIL).getPreferences()).isEqualTo("Education");
+
+        // A change that bypasses PreferencesService is not seen until the entry is evicted or expires
+        jdbcTemplate.update("UPDATE users SET preferences = 'Healthcare' WHERE email = ?", EMAIL);
+        assertThat(userProfileService.getProfile(EMAIL).getPreferences()).isEqualTo("Education");
+
+        preferencesService.updateUser(EMAIL, "48009", "Civil Rights");
+
+        UserProfile profile = userProfileService.getProfile(EMAIL);
+        assertThat(profile.getPreferences()).isEqualTo("Civil Rights");
+        assertThat(profile.getZipcode()).isEqualTo("48009");
+        assertThat(profile.getState()).isEqualTo("MI");
+    }
+
+    @Test
+    void unknownUsersAreNotCached() {
+        assertThat(userProfileService.getProfile("nobody@test.com")).isNull();
+    }
+}
@@ -0,0 +1,89 @@
+package com.yoursay.backend.service;
+
+import com.yoursay.backend.repository.VerificationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static com.yoursay.backend.service.VerificationCodeStore.CheckResult.INVALID;
+import static com.yoursay.backend.service.VerificationCodeStore.CheckResult.RATE_LIMITED;
+import static com.yoursay.backend.service.VerificationCodeStore.CheckResult.VALID;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class VerificationCodeStoreTests {
+
+    private static final String IP = "203.0.113.7";
+
+    @Autowired
+    private VerificationRepository verificationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM verification WHERE email LIKE '%@verify.test'");
+    }
+
+    @Test
+    void aCodeIsAcceptedOnceAndDroppedAfterTooManyWrongGuesses() {
+        VerificationCodeStore store = store(true, 600, 100, 100);
+        int code = store.issue("A@verify.test", IP).orElseThrow();
+
+        assertThat(store.check("a@verify.test", wrong(code), IP)).isEqualTo(INVALID);
+        assertThat(store.check("a@verify.test", code, IP)).isEqualTo(VALID);
+        assertThat(store.check("a@verify.test", code, IP)).isEqualTo(INVALID);
+
+        int next = store.issue("b@verify.test", IP).orElseThrow();
+        for (int i = 0; i < 4; i++) {
+            assertThat(store.check("b@verify.test", wrong(next), IP)).isEqualTo(INVALID);
+        }
+        assertThat(store.check("b@verify.test", next, IP)).isEqualTo(INVALID);
+        assertThat(verificationRepository.findByEmail("b@verify.test")).isNull();
+    }
+
+    @Test
+    void limitsSendsPerEmailAndPerClientAndChecksPerClient() {
+        VerificationCodeStore store = store(false, 600, 2, 3);
+
+        assertThat(store.issue("a@verify.test", IP)).isPresent();
+        assertThat(store.issue("a@verify.test", "198.51.100.1")).isPresent();
+        assertThat(store.issue("a@verify.test", "198.51.100.2")).isEmpty();
+
+        assertThat(store.issue("b@verify.test", IP)).isPresent();
+        assertThat(store.issue("c@verify.test", IP)).isPresent();
+        assertThat(store.issue("d@verify.test", IP)).isEmpty();
+
+        for (int i = 0; i < 3; i++) {
+            store.check("a@verify.test", 1, IP);
+        }
+        assertThat(store.check("a@verify.test", 1, IP)).isEqualTo(RATE_LIMITED);
+    }
+
+    @Test
+    void persistedCodesCanBeCheckedByAnotherInstanceAndExpiredOnesAreSwept() {
+        int code = store(true, 600, 100, 100).issue("a@verify.test", IP).orElseThrow();
+        assertThat(store(true, 600, 100, 100).check("a@verify.test", code, IP)).isEqualTo(VALID);
+
+        VerificationCodeStore expiring = store(true, 0, 100, 100);
+        int expired = expiring.issue("b@verify.test", IP).orElseThrow();
+        assertThat(expiring.check("b@verify.test", expired, IP)).isEqualTo(INVALID);
+        expiring.sweepExpired();
+        assertThat(verificationRepository.findByEmail("b@verify.test")).isNull();
+    }
+
+    private VerificationCodeStore store(boolean persist, long ttlSeconds, int perEmail, int perIp) {
+        return new VerificationCodeStore(verificationRepository, new SimpleMeterRegistry(), persist, ttlSeconds, 4,
+                perEmail, 1, perIp, 1, perIp, 1);
+    }
+
+    private static int wrong(int code) {
+        return (code + 1) % 1_000_000;
+    }
+}
@@ -0,0 +1,119 @@
+package com.yoursay.backend.service;
+
+import com.yoursay.backend.domain.VoteRequest;
+import com.yoursay.backend.domain.VoteTally;
+import com.yoursay.backend.repository.VotingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class VoteTallyServiceTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final VotingRepository votingRepository = mock(VotingRepository.class);
+    private final VoteTallyService tallyService = new VoteTallyService(votingRepository, meterRegistry);
+
+    @Test
+    void countsFirstVotesAndMovesFlippedVotes() {
+        when(votingRepository.upsert("a@test.com", 7, true)).thenReturn(null);
+        when(votingRepository.upsert("b@test.com", 7, true)).thenReturn(null);
+        when(votingRepository.upsert("a@test.com", 7, false)).thenReturn(true);
+
+        tallyService.recordVote("a@test.com", 7, true);
+        tallyService.recordVote("b@test.com", 7, true);
+        tallyService.recordVote("a@test.com", 7, false);
+
+        assertTally(tallyService.getTally(7), 1, 1);
+    }
+
+    @Test
+    void repeatingTheSameVoteDoesNotCountTwice() {
+        when(votingRepository.upsert("a@test.com", 7, true)).thenReturn(null, true);
+
+        tallyService.recordVote("a@test.com", 7, true);
+        tallyService.recordVote("a@test.com", 7, true);
+
+        assertTally(tallyService.getTally(7), 1, 0);
+    }
+
+    @Test
+    void appliesBatchesUsingTheVotesTheyReplaced() {
+        when(votingRepository.tallyAllBills()).thenReturn(List.of(row(1, 0, 1), row(2, 1, 0)));
+        when(votingRepository.upsertAll(anyList())).thenReturn(Arrays.asList(null, false, true));
+
+        tallyService.reconcile();
+        tallyService.recordVotes(List.of(vote("a@test.com", 1, true), vote("b@test.com", 1, true), vote("c@test.com", 2, true)));
+
+        assertTally(tallyService.getTally(1), 2, 0);
+        assertTally(tallyService.getTally(2), 1, 0);
+    }
+
+    @Test
+    void reconcileReplacesDriftedCountsWithTheDatabaseTotals() {
+        when(votingRepository.tallyAllBills()).thenReturn(List.of(row(1, 5, 2)), List.of(row(1, 6, 2)));
+        when(votingRepository.upsert("a@test.com", 2, false)).thenReturn(null);
+
+        tallyService.reconcile();
+        tallyService.recordVote("a@test.com", 2, false);
+        tallyService.reconcile();
+
+        List<VoteTally> tallies = tallyService.getTallies(List.of(1, 2, 3));
+        assertTally(tallies.get(0), 6, 2);
+        assertTally(tallies.get(1), 0, 0);
+        assertTally(tallies.get(2), 0, 0);
+        assertThat(meterRegistry.get("votes.tally.corrections").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void votesRecordedDuringTheReconcileScanAreNeitherBlockedNorLost() {
+        when(votingRepository.upsert("a@test.com", 1, true)).thenReturn(null);
+        when(votingRepository.tallyAllBills()).thenAnswer(invocation -> {
+            // Another writer votes while the aggregate is running; it must not wait for the scan to finish
+            CompletableFuture.runAsync(() -> tallyService.recordVote("a@test.com", 1, true)).get(5, TimeUnit.SECONDS);
+            return List.of(row(1, 3, 0));
+        });
+
+        tallyService.reconcile();
+
+        // The scan's snapshot missed the vote, so it is replayed onto the rebuilt counts
+        assertTally(tallyService.getTally(1), 4, 0);
+    }
+
+    private static void assertTally(VoteTally tally, long yes, long no) {
+        assertThat(tally.getYes()).isEqualTo(yes);
+        assertThat(tally.getNo()).isEqualTo(no);
+    }
+
+    private static VotingRepository.BillTallyRow row(int billId, long yes, long no) {
+        return new VotingRepository.BillTallyRow() {
+            public Integer getBillId() {
+                return billId;
+            }
+
+            public long getYesCount() {
+                return yes;
+            }
+
+            public long getNoCount() {
+                return no;
+            }
+        };
+    }
+
+    private static VoteRequest vote(String email, int billId, boolean value) {
+        VoteRequest request = new VoteRequest();
+        request.setEmail(email);
+        request.setBill_id(billId);
+        request.setVote(value);
+        return request;
+    }
+}
@@ -0,0 +1,154 @@
+package com.yoursay.backend.service;
+
+import com.yoursay.backend.domain.VoteTally;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class VoteTallyStreamTests {
+
+    private static final int MAX_SUBSCRIBERS = 5000;
+
+    private final VoteTallyService voteTallyService = mock(VoteTallyService.class);
+    private final VoteTallyStream stream = new VoteTallyStream(voteTallyService, new SimpleMeterRegistry(), MAX_SUBSCRIBERS, 3, 60_000);
+
+    @Test
+    void fansOneSnapshotOutToEverySubscriberUpToTheCeiling() {
+        when(voteTallyService.getTallies(any())).thenReturn(List.of(new VoteTally(1, 0, 0)));
+        when(voteTallyService.takeChangedBills()).thenReturn(Set.of(1));
+        when(voteTallyService.getTally(1)).thenReturn(new VoteTally(1, 10, 4));
+
+        AtomicInteger updates = new AtomicInteger();
+        List<Disposable> subscriptions = new ArrayList<>();
+        for (int i = 0; i < MAX_SUBSCRIBERS; i++) {
+            subscriptions.add(stream.subscribe(List.of(1)).orElseThrow()
+                    .skip(1)
+                    .subscribe(tallies -> {
+                        if (tallies.get(0).getYes() == 10) {
+                            updates.incrementAndGet();
+                        }
+                    }));
+        }
+        assertThat(stream.subscriberCount()).isEqualTo(MAX_SUBSCRIBERS);
+        assertThat(stream.subscribe(List.of(1))).isEmpty();
+
+        stream.publish();
+
+        assertThat(updates.get()).isEqualTo(MAX_SUBSCRIBERS);
+
+        subscriptions.forEach(Disposable::dispose);
+        assertThat(stream.subscriberCount()).isZero();
+        assertThat(stream.subscribe(List.of(1))).isPresent();
+    }
+
+    @Test
+    void concurrentSubscribersNeverOvershootTheCeiling() throws Exception {
+        when(voteTallyService.getTallies(any())).thenReturn(List.of(new VoteTally(1, 0, 0)));
+        int callers = MAX_SUBSCRIBERS * 2;
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Disposable> subscriptions = new CopyOnWriteArrayList<>();
+        AtomicInteger refused = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    // Refused up front when the stream is full, or on subscription when the last slot went meanwhile
+                    stream.subscribe(List.of(1)).ifPresentOrElse(
+                            flux -> subscriptions.add(flux.subscribe(tallies -> { }, error -> refused.incrementAndGet())),
+                            refused::incrementAndGet);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(refused.get()).isEqualTo(callers - MAX_SUBSCRIBERS);
+        assertThat(stream.subscriberCount()).isEqualTo(MAX_SUBSCRIBERS);
+
+        subscriptions.forEach(Disposable::dispose);
+        assertThat(stream.subscriberCount()).isZero();
+    }
+
+    @Test
+    void aStreamOnlyHoldsASlotWhileItIsSubscribed() {
+        when(voteTallyService.getTallies(any())).thenReturn(List.of(new VoteTally(1, 0, 0)));
+        VoteTallyStream single = new VoteTallyStream(voteTallyService, new SimpleMeterRegistry(), 1, 3, 60_000);
+
+        // Built but never subscribed, as when the response fails before Spring subscribes
+        single.subscribe(List.of(1)).orElseThrow();
+        Flux<List<VoteTally>> first = single.subscribe(List.of(1)).orElseThrow();
+        Flux<List<VoteTally>> second = single.subscribe(List.of(1)).orElseThrow();
+        assertThat(single.subscriberCount()).isZero();
+
+        Disposable subscription = first.subscribe();
+        assertThat(single.subscriberCount()).isEqualTo(1);
+        assertThat(single.subscribe(List.of(1))).isEmpty();
+        assertThatThrownBy(() -> second.blockFirst(Duration.ofSeconds(1))).isInstanceOf(RejectedExecutionException.class);
+        assertThat(single.subscriberCount()).isEqualTo(1);
+
+        subscription.dispose();
+        assertThat(single.subscriberCount()).isZero();
+    }
+
+    @Test
+    void streamsEndAfterTheirMaximumDurationAndFreeTheirSlot() throws InterruptedException {
+        when(voteTallyService.getTallies(any())).thenReturn(List.of(new VoteTally(1, 0, 0)));
+        VoteTallyStream shortLived = new VoteTallyStream(voteTallyService, new SimpleMeterRegistry(), 1, 3, 50);
+
+        // Completes on its own with just the initial totals
+        assertThat(shortLived.subscribe(List.of(1)).orElseThrow().collectList().block(Duration.ofSeconds(2))).hasSize(1);
+        // The slot is released in doFinally, which runs on the timer thread just after completion is delivered
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (shortLived.subscriberCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(shortLived.subscriberCount()).isZero();
+    }
+
+    @Test
+    void sendsOnlyWatchedBillsAndHeartbeatsWhenIdle() {
+        when(voteTallyService.getTallies(any())).thenReturn(List.of(new VoteTally(2, 0, 0)));
+        when(voteTallyService.takeChangedBills()).thenReturn(Set.of(1), Set.of(), Set.of(), Set.of());
+        when(voteTallyService.getTally(1)).thenReturn(new VoteTally(1, 1, 0));
+
+        List<List<VoteTally>> received = new CopyOnWriteArrayList<>();
+        Disposable subscription = stream.subscribe(List.of(2)).orElseThrow().subscribe(received::add);
+
+        for (int tick = 0; tick < 4; tick++) {
+            stream.publish();
+        }
+
+        // The initial totals, then nothing for bill 1, then a heartbeat after three idle ticks
+        assertThat(received).hasSize(2);
+        assertThat(received.get(0)).extracting(VoteTally::getBill_id).containsExactly(2);
+        assertThat(received.get(1)).isEmpty();
+        subscription.dispose();
+    }
+}
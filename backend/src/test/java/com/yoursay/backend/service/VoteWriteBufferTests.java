@@ -0,0 +1,136 @@
+package com.yoursay.backend.service;
+
+import com.yoursay.backend.domain.VoteRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class VoteWriteBufferTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final VoteTallyService voteTallyService = mock(VoteTallyService.class);
+
+    @Test
+    void coalescesRepeatedVotesSoTheLastOneWins() {
+        VoteWriteBuffer buffer = buffer(100, 1000);
+
+        buffer.offer(vote("a@test.com", 1, true));
+        buffer.offer(vote("a@test.com", 1, false));
+        buffer.offer(vote("b@test.com", 1, true));
+        assertThat(buffer.pendingFor("a@test.com")).containsEntry(1, false).hasSize(1);
+        verifyNoInteractions(voteTallyService);
+
+        buffer.flush();
+
+        List<VoteRequest> written = flushedBatches().get(0);
+        assertThat(written).hasSize(2);
+        assertThat(written).filteredOn(v -> v.getEmail().equals("a@test.com"))
+                .singleElement().extracting(VoteRequest::getVote).isEqualTo(false);
+        assertThat(meterRegistry.get("votes.buffer.pending").gauge().value()).isZero();
+        assertThat(meterRegistry.get("votes.buffer.flushed").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void flushesInTheBackgroundOnceABatchIsPending() {
+        VoteWriteBuffer buffer = buffer(3, 1000);
+
+        for (int bill = 1; bill <= 3; bill++) {
+            buffer.offer(vote("a@test.com", bill, true));
+        }
+
+        verify(voteTallyService, timeout(2000)).recordVotes(anyList());
+    }
+
+    @Test
+    void callerFlushesWhenTheBufferIsFull() throws InterruptedException {
+        VoteWriteBuffer buffer = buffer(2, 2);
+        doThrow(new IllegalStateException("database down")).when(voteTallyService).recordVotes(anyList());
+
+        buffer.offer(vote("a@test.com", 1, true));
+        buffer.offer(vote("a@test.com", 2, true));
+        // The background flush fails and puts both votes back
+        await(() -> meterRegistry.get("votes.buffer.flush.failed").counter().count() == 1);
+        await(() -> meterRegistry.get("votes.buffer.pending").gauge().value() == 2);
+
+        doNothing().when(voteTallyService).recordVotes(anyList());
+        buffer.offer(vote("a@test.com", 3, true));
+
+        assertThat(meterRegistry.get("votes.buffer.overflow").counter().count()).isEqualTo(1);
+        assertThat(buffer.pendingFor("a@test.com")).containsOnlyKeys(3);
+    }
+
+    @Test
+    void refusesNewVotesWhileTheDatabaseKeepsFailing() throws InterruptedException {
+        VoteWriteBuffer buffer = buffer(2, 2);
+        doThrow(new IllegalStateException("database down")).when(voteTallyService).recordVotes(anyList());
+
+        assertThat(buffer.offer(vote("a@test.com", 1, true))).isTrue();
+        assertThat(buffer.offer(vote("a@test.com", 2, true))).isTrue();
+        // The background flush fails and puts both votes back
+        await(() -> meterRegistry.get("votes.buffer.flush.failed").counter().count() == 1);
+        await(() -> meterRegistry.get("votes.buffer.pending").gauge().value() == 2);
+
+        for (int bill = 3; bill <= 20; bill++) {
+            assertThat(buffer.offer(vote("b@test.com", bill, true))).isFalse();
+        }
+        // Changing a vote that is already pending takes no extra room
+        assertThat(buffer.offer(vote("a@test.com", 1, false))).isTrue();
+
+        assertThat(meterRegistry.get("votes.buffer.pending").gauge().value()).isEqualTo(2);
+        assertThat(meterRegistry.get("votes.buffer.rejected").counter().count()).isEqualTo(18);
+        assertThat(buffer.pendingFor("b@test.com")).isEmpty();
+        assertThat(buffer.pendingFor("a@test.com")).containsEntry(1, false).hasSize(2);
+    }
+
+    @Test
+    void drainsPendingVotesOnShutdown() throws InterruptedException {
+        VoteWriteBuffer buffer = buffer(100, 1000);
+        buffer.offer(vote("a@test.com", 1, true));
+
+        buffer.drain();
+
+        assertThat(flushedBatches()).singleElement().asList().hasSize(1);
+        assertThat(buffer.pendingFor("a@test.com")).isEmpty();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private VoteWriteBuffer buffer(int batchSize, int maxPending) {
+        return new VoteWriteBuffer(voteTallyService, meterRegistry, "buffered", batchSize, maxPending);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<VoteRequest>> flushedBatches() {
+        ArgumentCaptor<List<VoteRequest>> captor = ArgumentCaptor.forClass(List.class);
+        verify(voteTallyService, atLeastOnce()).recordVotes(captor.capture());
+        return new ArrayList<>(captor.getAllValues());
+    }
+
+    private static VoteRequest vote(String email, int billId, boolean value) {
+        VoteRequest request = new VoteRequest();
+        request.setEmail(email);
+        request.setBill_id(billId);
+        request.setVote(value);
+        return request;
+    }
+}
@@ -0,0 +1,73 @@
+-- Seeds a scratch Postgres database with a realistic legislation/voting/opinions volume and prints the plans and
+-- timings of the legacy hot paths on the V1 schema: text bill dates, no change hash, no feed or vote indexes.
+-- feed-query-plans-migrated.sql runs the same workload after the migrations; the .out files next to them are the
+-- committed results.
+--
+--   psql "$YOURSAY_BENCH_DB_URL" -f src/test/resources/benchmark/feed-query-plans-baseline.sql
+--
+-- Never point this at a real database: it truncates the tables it seeds.
+
+\timing on
+
+TRUNCATE legislation, voting, opinions RESTART IDENTITY;
+
+-- 52 jurisdictions x 2,000 bills plus 20,000 local bills over 400 zipcodes
+INSERT INTO legislation (bill_id, title, description, bill_level, state, zipcode, bill_date, category)
+SELECT g,
+       'Bill ' || g,
+       repeat('Long description text ', 40),
+       CASE WHEN g % 52 = 0 THEN 'FEDERAL' ELSE 'STATE' END,
+       CASE WHEN g % 52 = 0 THEN 'US' ELSE chr(65 + g % 26) || chr(65 + (g / 26) % 2) END,
+       NULL,
+       to_char(DATE '2020-01-01' + (g % 2000), 'YYYY-MM-DD'),
+       (ARRAY['Healthcare', 'Education', 'Economy', 'Taxes', 'Infrastructure'])[1 + g % 5]
+FROM generate_series(1, 104000) AS g;
+
+INSERT INTO legislation (title, description, bill_level, state, zipcode, city, bill_date, category)
+SELECT 'Local bill ' || g, 'Local description', 'LOCAL', 'MI', lpad((48000 + g % 400)::text, 5, '0'), 'Troy',
+       to_char(DATE '2024-01-01' + (g % 365), 'YYYY-MM-DD'), 'Other'
+FROM generate_series(1, 20000) AS g;
+
+-- 50,000 users voting and commenting on 20 bills each
+INSERT INTO voting (bill_id, email, vote)
+SELECT 1 + (u * 37 + b * 101) % 104000, 'user' || u || '@example.com', (u + b) % 2 = 0
+FROM generate_series(1, 50000) AS u, generate_series(1, 20) AS b;
+
+INSERT INTO opinions (bill_id, email, opinion)
+SELECT 1 + (u * 37 + b * 101) % 104000, 'user' || u || '@example.com', 'Opinion text'
+FROM generate_series(1, 50000) AS u, generate_series(1, 20) AS b;
+
+ANALYZE legislation;
+ANALYZE voting;
+ANALYZE opinions;
+
+-- FetchLegislationService.fetchStateLegislation
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM legislation WHERE state = 'MA' AND bill_level = 'STATE';
+
+-- FetchLegislationService.fetchLocalLegislation
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM legislation WHERE zipcode = '48315' AND bill_level = 'LOCAL';
+
+-- The same page as findPageByState on the migrated schema, over text dates. The old code had no paging and loaded
+-- the whole feed above; this is only here to compare plans.
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, bill_id, title, bill_level, state, zipcode, city, bill_date, category
+FROM legislation
+WHERE bill_level = 'STATE' AND state = 'MA'
+  AND (bill_date < '2021-06-01' OR (bill_date = '2021-06-01' AND id < 90000) OR bill_date IS NULL)
+ORDER BY bill_date DESC NULLS LAST, id DESC
+LIMIT 21;
+
+-- VotingRepository.findByEmail / OpinionsRepository.findByEmail
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM voting WHERE email = 'user4242@example.com';
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM opinions WHERE email = 'user4242@example.com';
+
+-- VotingRepository.deleteByEmailAndBillId
+BEGIN;
+EXPLAIN (ANALYZE, BUFFERS)
+DELETE FROM voting WHERE email = 'user4242@example.com' AND bill_id = 12345;
+ROLLBACK;
@@ -0,0 +1,55 @@
+-- The schema.sql the app ran before Flyway, kept to test upgrading databases it created.
+-- Only change: the seed rows' ON CONFLICT (email) DO NOTHING clauses are dropped, which H2 cannot parse.
+DROP TABLE IF EXISTS users;
+DROP TABLE IF EXISTS verification;
+DROP TABLE IF EXISTS legislation;
+DROP TABLE IF EXISTS opinions;
+DROP TABLE IF EXISTS voting;
+
+CREATE TABLE IF NOT EXISTS users (
+    id SERIAL PRIMARY KEY,
+    email VARCHAR(100) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    zipcode VARCHAR(5),
+    state VARCHAR(2),
+    preferences VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS verification (
+    id SERIAL PRIMARY KEY,
+    email VARCHAR(100) NOT NULL UNIQUE,
+    code INTEGER NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS legislation (
+    id SERIAL PRIMARY KEY,
+    bill_id INTEGER UNIQUE,
+    title TEXT NOT NULL,
+    description TEXT,
+    bill_level VARCHAR(20) NOT NULL, -- local, state, federal
+    state VARCHAR(2),
+    zipcode VARCHAR(5),
+    city VARCHAR(100),
+    bill_date VARCHAR(10),
+    category VARCHAR(50)
+);
+
+CREATE TABLE IF NOT EXISTS opinions (
+    id SERIAL PRIMARY KEY,
+    bill_id INTEGER,
+    email VARCHAR(100) NOT NULL,
+    opinion TEXT
+);
+
+CREATE TABLE IF NOT EXISTS voting (
+    id SERIAL PRIMARY KEY,
+    bill_id INTEGER,
+    email VARCHAR(100) NOT NULL,
+    vote boolean
+);
+
+INSERT INTO users (email, password, zipcode, preferences, state) VALUES
+('test@test.com', '$2a$10$abcdefghijklmnopqrstuuNYVhuCzN8W/N3q6oBTpBoHaLLh6DgBG', '48315', 'Civil Rights', 'MI');
+
+INSERT INTO verification (email, code) VALUES
+('test@test.com', 123123);
@@ -213,10 +213,9 @@ export async function getUserOpinions(email) {
 
 export async function getAISummary(state, billId, title) {
   console.log("Fetching AI summary for:", { state, billId, title });
+  // The server summarizes the imported bill under its own state, so only the id is sent
   const requestBody = {
-    state: state,
-    bill_id: billId.toString(),
-    title: title
+    bill_id: billId.toString()
   };
   
   let res = await makeAuthenticatedRequest(`${BASE_URL}/api/legislation/ai`, {